@@ -0,0 +1,26 @@
+import { Box } from '@mui/material';
+import { AppButton } from '../atoms';
+
+export interface LoadMoreButtonProps {
+  hasMore: boolean;
+  loading?: boolean;
+  onLoadMore: () => void;
+}
+
+export function LoadMoreButton({
+  hasMore,
+  loading = false,
+  onLoadMore,
+}: LoadMoreButtonProps) {
+  if (!hasMore) {
+    return null;
+  }
+
+  return (
+    <Box sx={{ display: 'flex', justifyContent: 'center', mt: 2 }}>
+      <AppButton variant='outlined' onClick={onLoadMore} disabled={loading}>
+        {loading ? 'Ładowanie...' : 'Załaduj więcej'}
+      </AppButton>
+    </Box>
+  );
+}
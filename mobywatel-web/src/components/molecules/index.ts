@@ -16,6 +16,7 @@ export { EditCitizenModal } from './EditCitizenModal';
 export { ViewPersonalDataRequestModal } from './ViewPersonalDataRequestModal';
 export { ViewDocumentRequestModal } from './ViewDocumentRequestModal';
 export { ConfirmDeleteDialog } from './ConfirmDeleteDialog';
+export { LoadMoreButton } from './LoadMoreButton';
 // Admin Dashboard Components
 export { OfficialsTable } from './OfficialsTable';
 export { EditOfficialModal } from './EditOfficialModal';
@@ -45,6 +46,7 @@ export type { EditCitizenModalProps } from './EditCitizenModal';
 export type { ViewPersonalDataRequestModalProps } from './ViewPersonalDataRequestModal';
 export type { ViewDocumentRequestModalProps } from './ViewDocumentRequestModal';
 export type { ConfirmDeleteDialogProps } from './ConfirmDeleteDialog';
+export type { LoadMoreButtonProps } from './LoadMoreButton';
 // Admin Dashboard Component Types
 export type { OfficialsTableProps } from './OfficialsTable';
 export type { EditOfficialModalProps } from './EditOfficialModal';
@@ -16,12 +16,14 @@ import { PageLayout } from '../organisms';
 import { AdminDashboardStatsCard } from '../organisms/AdminDashboardStatsCard';
 import { OfficialsTable } from '../molecules/OfficialsTable';
 import { CitizensTable } from '../molecules/CitizensTable';
+import { LoadMoreButton } from '../molecules/LoadMoreButton';
 import { EditOfficialModal } from '../molecules/EditOfficialModal';
 import { CreateOfficialModal } from '../molecules/CreateOfficialModal';
 import { EditCitizenModal } from '../molecules/EditCitizenModal';
 import { AppButton, AppTypography } from '../atoms';
 import { API_BASE_URL } from '../../config/api';
 import { parseBackendError, logError } from '../../utils/errorUtils';
+import { fetchPage } from '../../utils/pagination';
 import type {
   OfficialData,
   OfficialCreateData,
@@ -59,12 +61,15 @@ export function AdminDashboard() {
   // Data states
   const [officials, setOfficials] = React.useState<OfficialData[]>([]);
   const [citizens, setCitizens] = React.useState<CitizenData[]>([]);
+  const [citizensNext, setCitizensNext] = React.useState<number | null>(null);
   const [dashboardStats, setDashboardStats] =
     React.useState<AdminDashboardStats | null>(null);
 
   // Loading states
   const [isLoadingOfficials, setIsLoadingOfficials] = React.useState(false);
   const [isLoadingCitizens, setIsLoadingCitizens] = React.useState(false);
+  const [isLoadingMoreCitizens, setIsLoadingMoreCitizens] =
+    React.useState(false);
   const [isLoadingStats, setIsLoadingStats] = React.useState(false);
 
   // Modal states
@@ -130,17 +135,39 @@ export function AdminDashboard() {
   const loadCitizens = async () => {
     setIsLoadingCitizens(true);
     try {
-      const response = await fetch(`${API_BASE_URL}/api/official/citizens`, {
-        credentials: 'include',
+      // first page only; the rest comes with "load more"
+      const page = await fetchPage<CitizenData>(
+        '/api/official/citizens',
+        'citizens'
+      );
+      setCitizens(page.items);
+      setCitizensNext(page.next);
+    } catch (error) {
+      const parsed = parseBackendError((error as Error)?.message || '');
+      showNotification(parsed.message, 'error');
+      logError({
+        type: 'api_error',
+        message: (error as Error)?.message || 'Błąd ładowania obywateli',
       });
+    } finally {
+      setIsLoadingCitizens(false);
+    }
+  };
 
-      if (response.ok) {
-        const data = await response.json();
-        setCitizens(data);
-      } else {
-        const errorText = await response.text();
-        throw new Error(parseBackendError(errorText).message);
-      }
+  const loadMoreCitizens = async () => {
+    if (citizensNext === null) {
+      return;
+    }
+
+    setIsLoadingMoreCitizens(true);
+    try {
+      const page = await fetchPage<CitizenData>(
+        '/api/official/citizens',
+        'citizens',
+        citizensNext
+      );
+      setCitizens((prev) => [...prev, ...page.items]);
+      setCitizensNext(page.next);
     } catch (error) {
       const parsed = parseBackendError((error as Error)?.message || '');
       showNotification(parsed.message, 'error');
@@ -149,7 +176,7 @@ export function AdminDashboard() {
         message: (error as Error)?.message || 'Błąd ładowania obywateli',
       });
     } finally {
-      setIsLoadingCitizens(false);
+      setIsLoadingMoreCitizens(false);
     }
   };
 
@@ -414,6 +441,11 @@ export function AdminDashboard() {
           onEdit={handleEditCitizen}
           onDelete={handleDeleteCitizen}
         />
+        <LoadMoreButton
+          hasMore={citizensNext !== null}
+          loading={isLoadingMoreCitizens}
+          onLoadMore={loadMoreCitizens}
+        />
       </TabPanel>
 
       {/* Modals */}
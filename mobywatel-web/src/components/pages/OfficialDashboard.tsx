@@ -9,10 +9,12 @@ import { EditCitizenModal } from '../molecules/EditCitizenModal';
 import { ViewPersonalDataRequestModal } from '../molecules/ViewPersonalDataRequestModal';
 import { ViewDocumentRequestModal } from '../molecules/ViewDocumentRequestModal';
 import { ConfirmDeleteDialog } from '../molecules/ConfirmDeleteDialog';
+import { LoadMoreButton } from '../molecules/LoadMoreButton';
 import { OfficialDashboardStatsCard } from '../organisms/OfficialDashboardStatsCard';
 import type { OfficialDashboardStats } from '../organisms/OfficialDashboardStatsCard';
 import { API_BASE_URL } from '../../config/api';
 import { parseBackendError } from '../../utils/errorUtils';
+import { fetchPage } from '../../utils/pagination';
 import type {
   CitizenData,
   CitizenUpdateData,
@@ -48,21 +50,31 @@ export function OfficialDashboard() {
 
   // Data states
   const [citizens, setCitizens] = React.useState<CitizenData[]>([]);
+  const [citizensNext, setCitizensNext] = React.useState<number | null>(null);
   const [personalDataRequests, setPersonalDataRequests] = React.useState<
     PersonalDataUpdateRequest[]
   >([]);
+  const [personalDataRequestsNext, setPersonalDataRequestsNext] =
+    React.useState<number | null>(null);
   const [documentRequests, setDocumentRequests] = React.useState<
     DocumentIssueRequest[]
   >([]);
+  const [documentRequestsNext, setDocumentRequestsNext] = React.useState<
+    number | null
+  >(null);
   const [dashboardStats, setDashboardStats] =
     React.useState<OfficialDashboardStats | null>(null);
 
   // Loading states
   const [isLoadingCitizens, setIsLoadingCitizens] = React.useState(false);
+  const [isLoadingMoreCitizens, setIsLoadingMoreCitizens] =
+    React.useState(false);
   const [isLoadingPersonalDataRequests, setIsLoadingPersonalDataRequests] =
     React.useState(false);
   const [isLoadingDocumentRequests, setIsLoadingDocumentRequests] =
     React.useState(false);
+  const [isLoadingMoreRequests, setIsLoadingMoreRequests] =
+    React.useState(false);
   const [isLoadingStats, setIsLoadingStats] = React.useState(false);
 
   // Modal states
@@ -128,28 +140,30 @@ export function OfficialDashboard() {
   const loadCitizens = React.useCallback(
     async (criteria?: CitizenSearchCriteria) => {
       setIsLoadingCitizens(true);
+      setCitizensNext(null);
       try {
-        let url: string;
+        // If no criteria, load the first page; the rest comes with "load more"
+        if (!criteria?.citizenID && !criteria?.PESEL) {
+          const page = await fetchPage<CitizenData>(
+            '/api/official/citizens',
+            'citizens'
+          );
+          setCitizens(page.items);
+          setCitizensNext(page.next);
+          return;
+        }
 
         // If searching by specific criteria, use the singular endpoint
-        if (criteria?.citizenID || criteria?.PESEL) {
-          url = `${API_BASE_URL}/api/official/citizen`;
-          const params = new URLSearchParams();
-
-          if (criteria.citizenID) {
-            params.append('citizenID', criteria.citizenID.toString());
-          }
-          if (criteria.PESEL) {
-            params.append('PESEL', criteria.PESEL);
-          }
-
-          url += `?${params.toString()}`;
-        } else {
-          // If no criteria, load all citizens
-          url = `${API_BASE_URL}/api/official/citizens`;
+        const params = new URLSearchParams();
+
+        if (criteria?.citizenID) {
+          params.append('citizenID', criteria.citizenID.toString());
+        }
+        if (criteria?.PESEL) {
+          params.append('PESEL', criteria.PESEL);
         }
 
-        const response = await fetch(url, {
+        const response = await fetch(`${API_BASE_URL}/api/official/citizen?${params.toString()}`, {
           credentials: 'include',
         });
 
@@ -173,26 +187,40 @@ export function OfficialDashboard() {
     []
   );
 
+  // Append the next page of citizens
+  const loadMoreCitizens = React.useCallback(async () => {
+    if (citizensNext === null) {
+      return;
+    }
+
+    setIsLoadingMoreCitizens(true);
+    try {
+      const page = await fetchPage<CitizenData>(
+        '/api/official/citizens',
+        'citizens',
+        citizensNext
+      );
+      setCitizens((prev) => [...prev, ...page.items]);
+      setCitizensNext(page.next);
+    } catch (error) {
+      const parsed = parseBackendError((error as Error)?.message || '');
+      showNotification(parsed.message, 'error');
+    } finally {
+      setIsLoadingMoreCitizens(false);
+    }
+  }, [citizensNext]);
+
   // Load personal data requests
   const loadPersonalDataRequests = React.useCallback(async () => {
     setIsLoadingPersonalDataRequests(true);
+    setPersonalDataRequestsNext(null);
     try {
-      const response = await fetch(
-        `${API_BASE_URL}/api/official/citizen/personalData/requests`,
-        {
-          credentials: 'include',
-        }
+      const page = await fetchPage<PersonalDataUpdateRequest>(
+        '/api/official/citizen/personalData/requests',
+        'requests'
       );
-
-      if (response.ok) {
-        const data = await response.json();
-        setPersonalDataRequests(data);
-      } else {
-        const errorText = await response.text();
-        const parsed = parseBackendError(errorText);
-        showNotification(parsed.message, 'error');
-        setPersonalDataRequests([]);
-      }
+      setPersonalDataRequests(page.items);
+      setPersonalDataRequestsNext(page.next);
     } catch (error) {
       const parsed = parseBackendError((error as Error)?.message || '');
       showNotification(parsed.message, 'error');
@@ -202,26 +230,40 @@ export function OfficialDashboard() {
     }
   }, []);
 
+  // Append the next page of personal data requests
+  const loadMorePersonalDataRequests = React.useCallback(async () => {
+    if (personalDataRequestsNext === null) {
+      return;
+    }
+
+    setIsLoadingMoreRequests(true);
+    try {
+      const page = await fetchPage<PersonalDataUpdateRequest>(
+        '/api/official/citizen/personalData/requests',
+        'requests',
+        personalDataRequestsNext
+      );
+      setPersonalDataRequests((prev) => [...prev, ...page.items]);
+      setPersonalDataRequestsNext(page.next);
+    } catch (error) {
+      const parsed = parseBackendError((error as Error)?.message || '');
+      showNotification(parsed.message, 'error');
+    } finally {
+      setIsLoadingMoreRequests(false);
+    }
+  }, [personalDataRequestsNext]);
+
   // Load document requests
   const loadDocumentRequests = React.useCallback(async () => {
     setIsLoadingDocumentRequests(true);
+    setDocumentRequestsNext(null);
     try {
-      const response = await fetch(
-        `${API_BASE_URL}/api/official/citizen/docs/requests`,
-        {
-          credentials: 'include',
-        }
+      const page = await fetchPage<DocumentIssueRequest>(
+        '/api/official/citizen/docs/requests',
+        'requests'
       );
-
-      if (response.ok) {
-        const data = await response.json();
-        setDocumentRequests(data);
-      } else {
-        const errorText = await response.text();
-        const parsed = parseBackendError(errorText);
-        showNotification(parsed.message, 'error');
-        setDocumentRequests([]);
-      }
+      setDocumentRequests(page.items);
+      setDocumentRequestsNext(page.next);
     } catch (error) {
       const parsed = parseBackendError((error as Error)?.message || '');
       showNotification(parsed.message, 'error');
@@ -231,6 +273,29 @@ export function OfficialDashboard() {
     }
   }, []);
 
+  // Append the next page of document requests
+  const loadMoreDocumentRequests = React.useCallback(async () => {
+    if (documentRequestsNext === null) {
+      return;
+    }
+
+    setIsLoadingMoreRequests(true);
+    try {
+      const page = await fetchPage<DocumentIssueRequest>(
+        '/api/official/citizen/docs/requests',
+        'requests',
+        documentRequestsNext
+      );
+      setDocumentRequests((prev) => [...prev, ...page.items]);
+      setDocumentRequestsNext(page.next);
+    } catch (error) {
+      const parsed = parseBackendError((error as Error)?.message || '');
+      showNotification(parsed.message, 'error');
+    } finally {
+      setIsLoadingMoreRequests(false);
+    }
+  }, [documentRequestsNext]);
+
   // Show notification
   const showNotification = (
     message: string,
@@ -485,6 +550,11 @@ export function OfficialDashboard() {
           onEdit={handleEditCitizen}
           onDelete={handleDeleteCitizen}
         />
+        <LoadMoreButton
+          hasMore={citizensNext !== null}
+          loading={isLoadingMoreCitizens}
+          onLoadMore={loadMoreCitizens}
+        />
       </TabPanel>
 
       <TabPanel value={activeTab} index={1}>
@@ -495,6 +565,11 @@ export function OfficialDashboard() {
           onApprove={handleApprovePersonalDataRequest}
           onReject={handleRejectPersonalDataRequest}
         />
+        <LoadMoreButton
+          hasMore={personalDataRequestsNext !== null}
+          loading={isLoadingMoreRequests}
+          onLoadMore={loadMorePersonalDataRequests}
+        />
       </TabPanel>
 
       <TabPanel value={activeTab} index={2}>
@@ -505,6 +580,11 @@ export function OfficialDashboard() {
           onApprove={handleApproveDocumentRequest}
           onReject={handleRejectDocumentRequest}
         />
+        <LoadMoreButton
+          hasMore={documentRequestsNext !== null}
+          loading={isLoadingMoreRequests}
+          onLoadMore={loadMoreDocumentRequests}
+        />
       </TabPanel>
 
       {/* Modals */}
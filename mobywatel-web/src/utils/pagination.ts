@@ -0,0 +1,30 @@
+import { API_BASE_URL } from '../config/api';
+
+export interface KeysetPage<T> {
+  items: T[];
+  next: number | null;
+}
+
+/**
+ * Fetches a single page of a keyset-paginated endpoint
+ * (the backend returns `{ [itemsKey]: T[], next: number | null }`);
+ * pass the previous page's `next` as `after` to get the following one
+ * Throws Error with the raw backend response text on failure
+ */
+export const fetchPage = async <T>(
+  path: string,
+  itemsKey: string,
+  after: number | null = null
+): Promise<KeysetPage<T>> => {
+  const query: string = after !== null ? `?after=${after}` : '';
+  const response = await fetch(`${API_BASE_URL}${path}${query}`, {
+    credentials: 'include',
+  });
+
+  if (!response.ok) {
+    throw new Error(await response.text());
+  }
+
+  const page = await response.json();
+  return { items: page[itemsKey] as T[], next: page.next };
+};
@@ -8,10 +8,13 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.multipart.support.StandardServletMultipartResolver;
 
 @SpringBootApplication
+@EnableScheduling
 public class MobywatelApplication {
 
     public static void main(String[] args) {
@@ -25,6 +28,16 @@ public class MobywatelApplication {
     @Value("${admin.password}")
     private String adminPassword;
 
+    // domyślny scheduler ma jeden wątek: nocna retencja audytu blokowałaby wtedy odświeżanie
+    // unieważnień tokenów (TokenVersionService) i flush segmentów audytu (AuditSegmentSink)
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduling.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+
     @Bean
     public CommandLineRunner commandLineRunner(UserService userService, FilesystemService filesystemService) throws BadRequestException {
         System.out.println("Admin Email: " + adminEmail);
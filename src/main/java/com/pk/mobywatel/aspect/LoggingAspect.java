@@ -1,18 +1,24 @@
 package com.pk.mobywatel.aspect;
 
-import com.pk.mobywatel.model.Log;
+import com.pk.mobywatel.config.CachedUser;
+import com.pk.mobywatel.config.TokenPrincipal;
+import com.pk.mobywatel.exceptions.GlobalExceptionHandler;
 import com.pk.mobywatel.model.UserModel;
-import com.pk.mobywatel.repository.LogRepository;
+import com.pk.mobywatel.service.AuditEntry;
+import com.pk.mobywatel.service.AuditSink;
 import jakarta.servlet.http.HttpServletRequest;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
-import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.sql.Timestamp;
 
@@ -22,66 +28,92 @@ public class LoggingAspect {
     @Autowired(required = false)
     private HttpServletRequest request;
 
+    // zapis do endpoint_log (albo do segmentów, app.audit.sink) odbywa się w tle, poza wątkiem requestu
     @Autowired
-    private LogRepository logRepository;
+    private AuditSink auditSink;
 
-    @AfterReturning(
-            pointcut = "execution(* com.pk.mobywatel.controllers.*.*(..)) &&" +
-                    "!execution(* com.pk.mobywatel.controllers.AuthController.validateTokenFromCookie(..)) &&" +
-                    "!execution(* com.pk.mobywatel.controllers.AuthController.validateTokenFromString(..))",
-            returning = "result"
-    )
-    public void logEndpoint(JoinPoint joinPoint, Object result) {
-        Integer statusCode = 200;
+    @Pointcut("execution(* com.pk.mobywatel.controllers.*.*(..)) &&" +
+            "!execution(* com.pk.mobywatel.controllers.AuthController.checkToken(..))")
+    public void endpoint() {
+    }
 
-        if (result instanceof ResponseEntity<?> responseEntity) {
-            statusCode = responseEntity.getStatusCode().value();
+    @Pointcut("execution(* com.pk.mobywatel.controllers.AuthController.validateTokenFromCookie(..)) ||" +
+            "execution(* com.pk.mobywatel.controllers.AuthController.validateTokenFromString(..))")
+    public void tokenValidation() {
+    }
+
+    @Around("endpoint() && !tokenValidation()")
+    public Object logEndpoint(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedAndLog(joinPoint, true);
+    }
+
+    // walidacja tokenu trafia do logu tylko gdy rzuci wyjątek
+    @Around("tokenValidation()")
+    public Object logTokenValidation(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedAndLog(joinPoint, false);
+    }
+
+    // Czas mierzony wokół wywołania kontrolera (bez filtrów i serializacji odpowiedzi).
+    // Status: z ResponseEntity, z HttpServletResponse dla metod void (np. 206/304 zdjęć),
+    // a dla wyjątku - ten, który nada mu GlobalExceptionHandler.
+    private Object proceedAndLog(ProceedingJoinPoint joinPoint, boolean logSuccess) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            submit(GlobalExceptionHandler.statusFor(e), start, e);
+            throw e;
         }
 
-        UserModel user = getCurrentUser();
-        Log log;
-
-        if (user == null) {
-            log = Log.builder()
-                    .accessTimestamp(new Timestamp(System.currentTimeMillis()))
-                    .description("Endpoint: " + request.getMethod() + " " + request.getRequestURL() + " accessed; HTTP status code: " + statusCode + "; no user!")
-                    .build();
-        } else {
-            log = Log.builder()
-                    .userModel(getCurrentUser())
-                    .accessTimestamp(new Timestamp(System.currentTimeMillis()))
-                    .description("Endpoint: " + request.getMethod() + " " + request.getRequestURL() + " accessed; HTTP status code: " + statusCode)
-                    .build();
+        if (logSuccess) {
+            submit(statusOf(result), start, null);
         }
+        return result;
+    }
+
+    private void submit(int statusCode, long start, Throwable exception) {
+        long durationMicros = (System.nanoTime() - start) / 1000;
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
 
-        logRepository.save(log);
+        auditSink.submit(new AuditEntry(
+                getCurrentUserID(),
+                new Timestamp(System.currentTimeMillis()),
+                request.getMethod(),
+                route == null ? request.getRequestURI() : route.toString(),
+                request.getRequestURL().toString(),
+                statusCode,
+                durationMicros,
+                exception == null ? null : exception.getClass().getName(),
+                exception == null ? null : exception.getLocalizedMessage()));
     }
 
-    @AfterThrowing(pointcut = "execution(* com.pk.mobywatel.controllers.*.*(..))", throwing = "exception")
-    public void logException(JoinPoint joinPoint, Exception exception) {
-        UserModel user = getCurrentUser();
-        Log log;
-
-        if (user == null) {
-            log = Log.builder()
-                    .accessTimestamp(new Timestamp(System.currentTimeMillis()))
-                    .description("Endpoint: " + request.getMethod() + " " + request.getRequestURL() + "; Exception: " + exception.getLocalizedMessage() + "; no user!")
-                    .build();
-        } else {
-            log = Log.builder()
-                    .userModel(getCurrentUser())
-                    .accessTimestamp(new Timestamp(System.currentTimeMillis()))
-                    .description("Endpoint: " + request.getMethod() + " " + request.getRequestURL() + "; Exception: " + exception.getLocalizedMessage())
-                    .build();
+    private static int statusOf(Object result) {
+        if (result instanceof ResponseEntity<?> responseEntity) {
+            return responseEntity.getStatusCode().value();
         }
 
-        logRepository.save(log);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes && attributes.getResponse() != null) {
+            return attributes.getResponse().getStatus();
+        }
+        return 200;
     }
 
-    private UserModel getCurrentUser() {
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        if (principal instanceof UserDetails) {
-            return (UserModel) principal;
+    private Integer getCurrentUserID() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication == null ? null : authentication.getPrincipal();
+
+        if (principal instanceof UserModel user) {
+            return user.getUserID();
+        }
+
+        if (principal instanceof CachedUser cachedUser) {
+            return cachedUser.userID();
+        }
+
+        if (principal instanceof TokenPrincipal tokenPrincipal) {
+            return tokenPrincipal.userID();
         }
 
         return null;
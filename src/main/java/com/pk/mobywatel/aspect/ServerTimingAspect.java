@@ -0,0 +1,36 @@
+package com.pk.mobywatel.aspect;
+
+import com.pk.mobywatel.util.ServerTiming;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+// Fazy Server-Timing dla beanów: zapytania repozytoriów (db), pliki (fs) i JWT (jwt).
+// AES, blind index i BCrypt są mierzone bezpośrednio w AESUtil, BlindIndexUtil i PasswordHashingExecutor.
+@Aspect
+@Component
+public class ServerTimingAspect {
+
+    // także metody odziedziczone z JpaRepository (save, findById, ...)
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(joinPoint, ServerTiming.Phase.DB);
+    }
+
+    @Around("execution(public * com.pk.mobywatel.service.FilesystemService.*(..))")
+    public Object timeFilesystem(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(joinPoint, ServerTiming.Phase.FS);
+    }
+
+    @Around("execution(public * com.pk.mobywatel.service.JwtService.*(..))")
+    public Object timeJwt(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(joinPoint, ServerTiming.Phase.JWT);
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint, ServerTiming.Phase phase) throws Throwable {
+        try (ServerTiming.Scope ignored = ServerTiming.start(phase)) {
+            return joinPoint.proceed();
+        }
+    }
+}
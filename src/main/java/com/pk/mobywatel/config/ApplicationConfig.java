@@ -1,51 +1,101 @@
 package com.pk.mobywatel.config;
 
 
+import com.pk.mobywatel.model.UserModel;
 import com.pk.mobywatel.repository.UserRepository;
+import com.pk.mobywatel.service.PasswordHashingExecutor;
+import com.pk.mobywatel.service.UserDetailsCache;
+import com.pk.mobywatel.util.AESEngine;
 import com.pk.mobywatel.util.AESUtil;
+import com.pk.mobywatel.util.BlindIndexUtil;
+import com.pk.mobywatel.util.BoundedPasswordEncoder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import pl.unak7.peselvalidator.PeselValidator;
 import pl.unak7.peselvalidator.PeselValidatorImpl;
 
 import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Value("${app.encryption.key}")
     private String encryptionKey;
 
+    // ECB zostaje domyślne dla zgodności; GCM po uzupełnieniu blind indeksów (BlindIndexBackfill)
+    @Value("${app.encryption.mode:ECB}")
+    private AESEngine.Mode encryptionMode;
+
+    @Value("${app.encryption.blind-index-key:}")
+    private String blindIndexKey;
+
+    // 0 = kalibracja przy starcie; w klastrze z różnymi maszynami warto ustawić jawnie tę samą wartość
+    @Value("${app.password-hashing.bcrypt-strength:0}")
+    private int bcryptStrength;
+
+    @Value("${app.password-hashing.target-ms:250}")
+    private long hashTargetMs;
+
+    @Value("${app.password-hashing.min-strength:10}")
+    private int minBcryptStrength;
+
+    @Value("${app.password-hashing.max-strength:15}")
+    private int maxBcryptStrength;
+
     @PostConstruct
     public void init() {
-        AESUtil.setKey(encryptionKey);
+        AESUtil.setKey(encryptionKey, encryptionMode);
+
+        if (blindIndexKey.isBlank()) BlindIndexUtil.deriveKey(encryptionKey);
+        else BlindIndexUtil.setKey(blindIndexKey);
     }
 
     @Bean
     public UserDetailsService userDetailsService(){
-        return email -> userRepository.findByEmail(email).orElseThrow(()-> new UsernameNotFoundException("User not found"));
+        return email -> userDetailsCache.find(email).orElseThrow(()-> new UsernameNotFoundException("User not found"));
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder boundedPasswordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService());
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(boundedPasswordEncoder);
+        // po udanym logowaniu hash o nieaktualnych parametrach (brak prefiksu {bcrypt}, niższy koszt) jest zapisywany od nowa
+        provider.setUserDetailsPasswordService(userDetailsPasswordService());
         return provider;
     }
 
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (user, newPassword) -> {
+            // świeży odczyt zamiast zapisu przekazanej instancji, żeby nie nadpisać innych pól starszymi wartościami
+            UserModel model = userRepository.findByEmail(user.getUsername())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            userDetailsCache.invalidate(model);
+            model.setPassword(newPassword);
+            return CachedUser.of(userRepository.save(model));
+        };
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -60,4 +110,54 @@ public class ApplicationConfig {
     public BCryptPasswordEncoder passwordEncoder(){
         return new BCryptPasswordEncoder();
     }
+
+    // Nowe hashe: {bcrypt} z kosztem dobranym do app.password-hashing.target-ms na tej maszynie.
+    // Hashe bez prefiksu (sprzed tej zmiany) weryfikuje zwykły BCrypt i są przepisywane przy logowaniu.
+    @Bean
+    public DelegatingPasswordEncoder delegatingPasswordEncoder() {
+        int strength = bcryptStrength > 0 ? bcryptStrength : calibrateBCryptStrength();
+        System.out.println("BCrypt strength: " + strength + (bcryptStrength > 0 ? " (configured)" : " (calibrated for " + hashTargetMs + " ms)"));
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(passwordEncoder());
+        return encoder;
+    }
+
+    // koder używany przez logowanie i rejestrację - BCrypt na ograniczonej puli zamiast na wątku Tomcata
+    @Bean
+    @Primary
+    public PasswordEncoder boundedPasswordEncoder(DelegatingPasswordEncoder delegatingPasswordEncoder, PasswordHashingExecutor passwordHashingExecutor) {
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder, passwordHashingExecutor);
+    }
+
+    // Największy koszt, którego hash mieści się w docelowym czasie. Każdy kolejny koszt podwaja czas,
+    // więc pomiar kończy się, gdy następny krok przekroczyłby cel. Najlepszy z dwóch pomiarów (JIT, szum).
+    private int calibrateBCryptStrength() {
+        int strength = minBcryptStrength;
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(hashTargetMs);
+
+        new BCryptPasswordEncoder(minBcryptStrength).encode("calibration-warmup");
+
+        for (int candidate = minBcryptStrength; candidate <= maxBcryptStrength; candidate++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(candidate);
+            long elapsed = Long.MAX_VALUE;
+
+            for (int attempt = 0; attempt < 2; attempt++) {
+                long start = System.nanoTime();
+                encoder.encode("calibration-Password1!");
+                elapsed = Math.min(elapsed, System.nanoTime() - start);
+            }
+
+            if (elapsed > targetNanos) {
+                break;
+            }
+            strength = candidate;
+
+            if (elapsed * 2 > targetNanos) {
+                break;
+            }
+        }
+
+        return strength;
+    }
 }
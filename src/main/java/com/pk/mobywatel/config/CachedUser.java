@@ -0,0 +1,44 @@
+package com.pk.mobywatel.config;
+
+import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.util.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+// Niezmienna kopia UserModel trzymana w UserDetailsCache - wpis w cache nie jest encją, więc nie da się
+// go przypadkiem zapisać (merge) ze starszym stanem ani zmienić dla innych requestów
+public record CachedUser(Integer userID,
+                         String email,
+                         String password,
+                         Role role,
+                         Integer tokenVersion) implements UserDetails {
+
+    public static CachedUser of(UserModel user) {
+        return new CachedUser(user.getUserID(), user.getEmail(), user.getPassword(), user.getRole(), user.getTokenVersion());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    // hash hasła nie trafia do logów
+    @Override
+    public String toString() {
+        return "CachedUser[userID=" + userID + ", role=" + role + "]";
+    }
+}
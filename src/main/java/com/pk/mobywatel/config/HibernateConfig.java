@@ -0,0 +1,27 @@
+package com.pk.mobywatel.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Batchowanie JDBC dla zapisów przez Hibernate. Działa dzięki generatorom sekwencyjnym (pooled, allocationSize = 50) -
+// przy IDENTITY Hibernate musi wykonać INSERT od razu, żeby poznać ID, i po cichu wyłącza batchowanie insertów.
+// order_inserts / order_updates grupują instrukcje po encji, żeby przeplatane zapisy (np. user + citizen) szły w jednym batchu.
+@Configuration
+public class HibernateConfig {
+
+    @Value("${app.jpa.batch-size:50}")
+    private int batchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+}
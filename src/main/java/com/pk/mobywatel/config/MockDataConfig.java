@@ -14,6 +14,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.EnumSet;
 
 @Configuration
 @RequiredArgsConstructor
@@ -148,7 +149,7 @@ public class MockDataConfig {
                     .expirationDate(LocalDate.of(2036, 6, 15))
                     .issueAuthority(managedOfficial2)
                     .lost(false)
-                    .categories(Arrays.asList(LicenseCategory.B, LicenseCategory.A1))
+                    .categories(EnumSet.of(LicenseCategory.B, LicenseCategory.A1))
                     .build();
 
             DriverLicense driverLicense2 = DriverLicense.builder()
@@ -157,7 +158,7 @@ public class MockDataConfig {
                     .expirationDate(LocalDate.of(2033, 4, 20))
                     .issueAuthority(managedOfficial2)
                     .lost(true) // This license is marked as lost
-                    .categories(Arrays.asList(LicenseCategory.B, LicenseCategory.C, LicenseCategory.D))
+                    .categories(EnumSet.of(LicenseCategory.B, LicenseCategory.C, LicenseCategory.D))
                     .build();
 
             documentRepository.save(driverLicense1);
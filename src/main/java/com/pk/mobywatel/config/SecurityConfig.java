@@ -31,6 +31,7 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/api/auth/**",
+                                         "/api/photo/signed/**",
                                          "/api-docs",
                                          "/api-docs/**",
                                          "/v3/api-docs/**",
@@ -38,6 +39,9 @@ public class SecurityConfig {
                                          "/swagger-ui.html",
                                           "/swagger-resources/**")
                         .permitAll()
+                        // health dla healthchecka kontenera; metryki (endpoint.latency itd.) tylko dla administratora
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session-> session
@@ -0,0 +1,108 @@
+package com.pk.mobywatel.config;
+
+import com.pk.mobywatel.util.ServerTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Pierwszy filtr łańcucha (przed Spring Security, więc obejmuje weryfikację JWT): mierzy cały request
+// i jego fazy (ServerTiming), dopisuje nagłówek Server-Timing tuż przed zatwierdzeniem odpowiedzi
+// i zapisuje histogramy per metoda kontrolera:
+//  endpoint.latency (controller, method)         - czas całego requestu, z histogramem i percentylami,
+//  endpoint.phase   (controller, method, phase)   - czas faz jwt / db / crypto / fs / hash.
+// Nagłówek zdradza klientom czasy faz (np. czy PESEL/email trafił w bazę), więc domyślnie jest wyłączony
+// (app.server-timing.header.enabled) - do diagnostyki na środowisku testowym; metryki są zbierane zawsze.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.server-timing.header.enabled:false}")
+    private boolean headerEnabled;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        ServerTiming.Timings timings = ServerTiming.begin();
+        HttpServletResponse timed = headerEnabled ? new ServerTimingResponse(response, timings) : response;
+
+        try {
+            filterChain.doFilter(request, timed);
+
+            // odpowiedź jeszcze w buforze (albo wysyłana przez sendfile po powrocie z łańcucha)
+            if (headerEnabled && !response.isCommitted()) {
+                response.setHeader(SERVER_TIMING, timings.header());
+            }
+        } finally {
+            ServerTiming.end();
+            record(request, timings);
+        }
+    }
+
+    private void record(HttpServletRequest request, ServerTiming.Timings timings) {
+        // bez metody kontrolera (404, zasoby statyczne) nie ma czego przypisać
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return;
+        }
+
+        String controller = handler.getBeanType().getSimpleName();
+        String method = handler.getMethod().getName();
+
+        Timer.builder("endpoint.latency")
+                .description("Request latency per controller method")
+                .tag("controller", controller)
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(timings.totalNanos(), TimeUnit.NANOSECONDS);
+
+        for (ServerTiming.Phase phase : ServerTiming.Phase.values()) {
+            long nanos = timings.nanos(phase);
+            if (nanos > 0) {
+                Timer.builder("endpoint.phase")
+                        .description("Time spent in one phase of a request per controller method")
+                        .tag("controller", controller)
+                        .tag("method", method)
+                        .tag("phase", phase.metricName())
+                        .register(meterRegistry)
+                        .record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // ustawia Server-Timing w chwili, gdy odpowiedź ma zostać zatwierdzona (flush, zapełniony bufor, sendError)
+    private static final class ServerTimingResponse extends OnCommittedResponseWrapper {
+        private final ServerTiming.Timings timings;
+
+        private ServerTimingResponse(HttpServletResponse response, ServerTiming.Timings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            ((HttpServletResponse) getResponse()).setHeader(SERVER_TIMING, timings.header());
+        }
+    }
+}
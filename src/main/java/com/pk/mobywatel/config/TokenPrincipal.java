@@ -0,0 +1,24 @@
+package com.pk.mobywatel.config;
+
+import com.pk.mobywatel.util.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+// Lekki principal budowany wprost ze zweryfikowanych claimów JWT, bez odczytu UserModel z bazy
+public record TokenPrincipal(Integer userID,
+                             String email,
+                             Role role) implements AuthenticatedPrincipal {
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,16 +1,25 @@
 package com.pk.mobywatel.controllers;
 
-import com.pk.mobywatel.response.LogResponse;
+import com.pk.mobywatel.response.CitizenImportReport;
+import com.pk.mobywatel.response.LogPageDto;
 import com.pk.mobywatel.response.OfficialDto;
+import com.pk.mobywatel.request.LogFilter;
 import com.pk.mobywatel.request.OfficialBody;
 import com.pk.mobywatel.response.ApiResponse;
 import com.pk.mobywatel.service.AdminService;
+import com.pk.mobywatel.service.AuditLogReader;
+import com.pk.mobywatel.service.CitizenImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -20,6 +29,8 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final CitizenImportService citizenImportService;
+    private final AuditLogReader auditLogReader;
 
     @GetMapping("/official")
     public ResponseEntity<OfficialDto> getOfficialByID(@RequestParam Integer officialID) throws BadRequestException {
@@ -44,9 +55,41 @@ public class AdminController {
         return ResponseEntity.ok(new ApiResponse(true, "Official account deleted"));
     }
 
+    // treść requestu czytana strumieniowo (bez multipart i bez buforowania całego pliku);
+    // format z Content-Type: text/csv albo application/x-ndjson, inny = 400
+    @PostMapping("/citizens/import")
+    public ResponseEntity<CitizenImportReport> importCitizens(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(citizenImportService.importCitizens(
+                request.getInputStream(),
+                CitizenImportService.Format.fromContentType(request.getContentType())
+        ));
+    }
+
+    // od najnowszych; from/to jako ISO-8601 (np. 2026-10-17T00:00:00Z), after = "next" z poprzedniej strony
     @GetMapping("/logs")
-    public ResponseEntity<List<LogResponse>> getLogs() {
-        return ResponseEntity.ok(adminService.fetchLogs());
+    public ResponseEntity<LogPageDto> getLogs(@RequestParam(required = false) Instant from,
+                                              @RequestParam(required = false) Instant to,
+                                              @RequestParam(required = false) Integer userID,
+                                              @RequestParam(required = false) Integer status,
+                                              @RequestParam(required = false) String route,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(required = false) Integer size) throws BadRequestException {
+        return ResponseEntity.ok(auditLogReader.fetchPage(new LogFilter(from, to, userID, status, route), after, size));
+    }
+
+    // te same filtry, wszystkie pasujące wpisy jako NDJSON zapisywany w trakcie odczytu z bazy
+    @GetMapping("/logs/export")
+    public void exportLogs(@RequestParam(required = false) Instant from,
+                           @RequestParam(required = false) Instant to,
+                           @RequestParam(required = false) Integer userID,
+                           @RequestParam(required = false) Integer status,
+                           @RequestParam(required = false) String route,
+                           HttpServletResponse response) throws IOException {
+        LogFilter filter = new LogFilter(from, to, userID, status, route);
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        auditLogReader.export(filter, response.getOutputStream());
     }
 
     // TESTING
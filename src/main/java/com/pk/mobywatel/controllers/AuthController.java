@@ -41,6 +41,18 @@ public class AuthController {
         return ResponseEntity.ok(authService.login(request, response));
     }
 
+    // Dla nginx auth_request: tylko status (204/401) i nagłówki X-User-Id / X-User-Roles, bez body.
+    // Pominięte w endpoint_log (LoggingAspect) - wywoływane przy każdym chronionym requeście proxy.
+    @GetMapping("/check")
+    public ResponseEntity<Void> checkToken(@CookieValue(name = "jwt", required = false) String token) {
+        return authService.authorize(token)
+                .map(principal -> ResponseEntity.noContent()
+                        .header("X-User-Id", principal.userID().toString())
+                        .header("X-User-Roles", "ROLE_" + principal.role().name())
+                        .<Void>build())
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
     @PostMapping("/validate-token")
     public ResponseEntity<ValidationResponse> validateTokenFromString(@RequestBody ValidationRequest request) throws BadRequestException {
         String token = request.token();
@@ -48,7 +60,7 @@ public class AuthController {
         authService.validateToken(token);
 
         // username w kontekscie jwt, w tym przypadku email
-        String email = jwtService.extractUsername(token);
+        String email = jwtService.verify(token).subject();
         int userID = userService.getUserIDFromEmail(email);
         String[] roles = userService.getUserRolesFromEmail(email);
         return ResponseEntity.ok(ValidationResponse.builder()
@@ -81,13 +93,13 @@ public class AuthController {
 
             authService.validateToken(jwtToken.get());
 
-            String email = jwtService.extractUsername(jwtToken.get());
+            String email = jwtService.verify(jwtToken.get()).subject();
             int userID = userService.getUserIDFromEmail(email);
             String[] roles = userService.getUserRolesFromEmail(email);
 
             return ResponseEntity.ok(ValidationResponse.builder()
                     .valid(true)
-                    .email(jwtService.extractUsername(jwtToken.get()))
+                    .email(email)
                     .userID(userID)
                     .roles(roles)
                     .message("Validation successful")
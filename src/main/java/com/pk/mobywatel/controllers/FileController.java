@@ -1,66 +1,92 @@
 package com.pk.mobywatel.controllers;
 
-import com.pk.mobywatel.model.Citizen;
-import com.pk.mobywatel.model.UserModel;
-import com.pk.mobywatel.repository.CitizenRepository;
-import com.pk.mobywatel.repository.UserRepository;
+import com.pk.mobywatel.model.StoredFile;
+import com.pk.mobywatel.repository.DocumentIssueRequestRepository;
+import com.pk.mobywatel.repository.DocumentRepository;
+import com.pk.mobywatel.response.PhotoUrlResponse;
+import com.pk.mobywatel.service.CitizenResolver;
 import com.pk.mobywatel.service.FilesystemService;
-import com.pk.mobywatel.service.JwtService;
+import com.pk.mobywatel.service.PhotoResponseWriter;
+import com.pk.mobywatel.service.PhotoUrlSigner;
 import com.pk.mobywatel.util.FilestorageyUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
 @RestController
 @RequestMapping("/api/photo")
 @RequiredArgsConstructor
 public class FileController {
-    private final CitizenRepository citizenRepository;
-    private final UserRepository userRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentIssueRequestRepository documentIssueRequestRepository;
     private final FilesystemService filesystemService;
-    private final JwtService jwtService;
+    private final PhotoResponseWriter photoResponseWriter;
+    private final PhotoUrlSigner photoUrlSigner;
+    private final CitizenResolver citizenResolver;
 
     @Secured({"ROLE_OFFICIAL", "ROLE_ADMIN"})
     @GetMapping("/request/{documentID}")
-    public ResponseEntity<Resource> requestPhoto(@PathVariable("documentID") Integer documentID, @RequestParam Integer citizenID) throws BadRequestException {
-        Resource file = filesystemService.loadDoc(citizenID, documentID, FilestorageyUtil.REQUEST);
+    public void requestPhoto(@PathVariable("documentID") Integer documentID, @RequestParam Integer citizenID,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StoredFile photo = findRequestPhoto(documentID, citizenID);
 
-        return getResource(file);
+        photoResponseWriter.write(request, response, filesystemService.loadDoc(photo, FilestorageyUtil.REQUEST));
+    }
+
+    @Secured({"ROLE_OFFICIAL", "ROLE_ADMIN"})
+    @GetMapping("/request/{documentID}/url")
+    public ResponseEntity<PhotoUrlResponse> requestPhotoUrl(@PathVariable("documentID") Integer documentID, @RequestParam Integer citizenID) throws BadRequestException {
+        return ResponseEntity.ok(photoUrlSigner.sign(FilestorageyUtil.REQUEST, findRequestPhoto(documentID, citizenID)));
     }
 
     @Secured({"ROLE_CITIZEN", "ROLE_ADMIN"})
     @GetMapping("/doc/{documentID}")
-    public ResponseEntity<Resource> docPhoto(@PathVariable("documentID") Integer documentID, @CookieValue(name = "jwt") String token) throws BadRequestException {
-        UserModel user = userRepository.findByEmail(jwtService.extractUsername(token))
-                .orElseThrow(() -> new BadRequestException("User not found"));
-        Citizen citizen = citizenRepository.findByUser(user)
-                .orElseThrow(() -> new BadRequestException("Citizen not found"));
+    public void docPhoto(@PathVariable("documentID") Integer documentID, @CookieValue(name = "jwt") String token,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StoredFile photo = findDocPhoto(documentID, token);
+
+        photoResponseWriter.write(request, response, filesystemService.loadDoc(photo, FilestorageyUtil.DOCUMENT));
+    }
 
-        Resource file = filesystemService.loadDoc(citizen.getCitizenID(), documentID, FilestorageyUtil.DOCUMENT);
+    @Secured({"ROLE_CITIZEN", "ROLE_ADMIN"})
+    @GetMapping("/doc/{documentID}/url")
+    public ResponseEntity<PhotoUrlResponse> docPhotoUrl(@PathVariable("documentID") Integer documentID, @CookieValue(name = "jwt") String token) throws BadRequestException {
+        return ResponseEntity.ok(photoUrlSigner.sign(FilestorageyUtil.DOCUMENT, findDocPhoto(documentID, token)));
+    }
 
-        return getResource(file);
+    // link wydany przez /url: bez JWT i bez bazy - tylko podpis, termin i jeden stat pliku
+    @GetMapping("/signed/{type}/{citizenID}/{fileName}")
+    public void signedPhoto(@PathVariable("type") String type, @PathVariable("citizenID") Integer citizenID, @PathVariable("fileName") String fileName,
+                            @RequestParam("v") String hash, @RequestParam("expires") long expires, @RequestParam("signature") String signature,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FilestorageyUtil storage = photoUrlSigner.verify(type, citizenID + "/" + fileName, hash, expires, signature);
+        StoredFile photo = filesystemService.describe(citizenID, fileName, 0, hash.isEmpty() ? null : hash);
+
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(Math.max(0, expires - Instant.now().getEpochSecond()))).cachePrivate();
+        photoResponseWriter.write(request, response, filesystemService.loadDoc(photo, storage), cacheControl);
     }
 
-    private ResponseEntity<Resource> getResource(Resource file) {
-        String filename = file.getFilename();
-        String contentType = "application/octet-stream";
+    // brak metadanych = wiersz sprzed ich zapisywania, którego migracja jeszcze nie objęła
+    private StoredFile findRequestPhoto(Integer requestID, Integer citizenID) throws BadRequestException {
+        return documentIssueRequestRepository.findPhoto(requestID, citizenID)
+                .or(() -> filesystemService.findByID(citizenID, requestID, FilestorageyUtil.REQUEST))
+                .orElseThrow(() -> new BadRequestException("File does not exist"));
+    }
 
-        if (filename.endsWith(".jpg") || filename.endsWith(".jpeg")) {
-            contentType = "image/jpeg";
-        } else if (filename.endsWith(".png")) {
-            contentType = "image/png";
-        } else if (filename.endsWith(".gif")) {
-            contentType = "image/gif";
-        }
+    private StoredFile findDocPhoto(Integer documentID, String token) throws BadRequestException {
+        Integer citizenID = citizenResolver.resolveCitizenID(token);
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-                .body(file);
+        return documentRepository.findPhoto(documentID, citizenID)
+                .or(() -> filesystemService.findByID(citizenID, documentID, FilestorageyUtil.DOCUMENT))
+                .orElseThrow(() -> new BadRequestException("File does not exist"));
     }
 }
@@ -5,8 +5,9 @@ import com.pk.mobywatel.request.ProcessDocumentIssueBody;
 import com.pk.mobywatel.request.ProcessPersonalDataUpdateBody;
 import com.pk.mobywatel.response.ApiResponse;
 import com.pk.mobywatel.response.CitizenDto;
-import com.pk.mobywatel.response.DocumentIssueRequestDto;
-import com.pk.mobywatel.response.PersonaDataUpdateRequestDto;
+import com.pk.mobywatel.response.CitizenPageDto;
+import com.pk.mobywatel.response.DocumentIssueRequestPageDto;
+import com.pk.mobywatel.response.PersonalDataUpdateRequestPageDto;
 import com.pk.mobywatel.service.OfficialService;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
@@ -14,7 +15,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/official")
@@ -48,13 +48,15 @@ public class OfficialController {
     }
 
     @GetMapping("/citizens")
-    public ResponseEntity<List<CitizenDto>> getCitizens(){
-        return ResponseEntity.ok(officialService.fetchCitizens());
+    public ResponseEntity<CitizenPageDto> getCitizens(@RequestParam(name = "after", required = false) Integer after,
+                                                      @RequestParam(name = "size", required = false) Integer size) throws BadRequestException {
+        return ResponseEntity.ok(officialService.fetchCitizens(after, size));
     }
 
     @GetMapping("/citizen/personalData/requests")
-    public ResponseEntity<List<PersonaDataUpdateRequestDto>> getUpdateRequests() {
-        return ResponseEntity.ok(officialService.getUpdateRequests());
+    public ResponseEntity<PersonalDataUpdateRequestPageDto> getUpdateRequests(@RequestParam(name = "after", required = false) Integer after,
+                                                                              @RequestParam(name = "size", required = false) Integer size) throws BadRequestException {
+        return ResponseEntity.ok(officialService.getUpdateRequests(after, size));
     }
 
     @PostMapping("/citizen/personalData/request")
@@ -64,8 +66,9 @@ public class OfficialController {
     }
 
     @GetMapping("/citizen/docs/requests")
-    public ResponseEntity<List<DocumentIssueRequestDto>> getDocumentIssueRequests() {
-        return ResponseEntity.ok(officialService.getDocumentIssueRequests());
+    public ResponseEntity<DocumentIssueRequestPageDto> getDocumentIssueRequests(@RequestParam(name = "after", required = false) Integer after,
+                                                                                @RequestParam(name = "size", required = false) Integer size) throws BadRequestException {
+        return ResponseEntity.ok(officialService.getDocumentIssueRequests(after, size));
     }
 
     @PostMapping("/citizen/docs/request")
@@ -5,6 +5,7 @@ import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.apache.coyote.BadRequestException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -22,6 +23,19 @@ import java.nio.file.AccessDeniedException;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // status, który nada wyjątkowi handler poniżej - LoggingAspect zapisuje go w endpoint_log.status_code
+    // (advice kończy się przed handlerem); przy dodawaniu handlera trzeba uzupełnić też tę mapę
+    public static int statusFor(Throwable e) {
+        if (e instanceof ResponseStatusException statusException) return statusException.getStatusCode().value();
+        if (e instanceof DataIntegrityViolationException) return HttpStatus.CONFLICT.value();
+        if (e instanceof ExpiredJwtException) return HttpStatus.UNAUTHORIZED.value();
+        if (e instanceof AccessDeniedException || e instanceof AuthorizationDeniedException) return HttpStatus.UNAUTHORIZED.value();
+        if (e instanceof PasswordHashingBusyException) return HttpStatus.SERVICE_UNAVAILABLE.value();
+        if (e instanceof BadCredentialsException || e instanceof UsernameNotFoundException
+                || e instanceof BadRequestException || e instanceof JwtException) return HttpStatus.BAD_REQUEST.value();
+        return HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<String> handleResponseStatusException(ResponseStatusException e) {
         return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
@@ -67,6 +81,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Jwt token is invalid: " + e.getMessage());
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handlePasswordHashingBusyException(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body("Service unavailable: " + e.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGenericException(Exception e) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal server error: " + e.getMessage());
@@ -0,0 +1,15 @@
+package com.pk.mobywatel.exceptions;
+
+// Pula haszowania haseł jest pełna - GlobalExceptionHandler odpowiada 503 z Retry-After
+public class PasswordHashingBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(long retryAfterSeconds) {
+        super("Password hashing capacity exhausted");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,5 +1,6 @@
 package com.pk.mobywatel.model;
 
+import com.pk.mobywatel.util.BlindIndexUtil;
 import com.pk.mobywatel.util.EncryptionConverter;
 import com.pk.mobywatel.util.Gender;
 import jakarta.persistence.*;
@@ -13,13 +14,18 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_citizen_pesel_hash", columnList = "pesel_hash", unique = true),
+        @Index(name = "idx_citizen_user_id", columnList = "user_id")
+})
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Citizen {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "citizen_seq")
+    @SequenceGenerator(name = "citizen_seq", sequenceName = "citizen_seq", allocationSize = 50)
     private Integer citizenID;
 
     @OneToOne(fetch = FetchType.LAZY,cascade = CascadeType.ALL)
@@ -37,10 +43,14 @@ public class Citizen {
     @Column(nullable = false)
     private LocalDate birthDate;
 
-    @Column(unique = true,nullable = false)
+    @Column(nullable = false)
     @Convert(converter = EncryptionConverter.class)
     private String PESEL;
 
+    // HMAC numeru PESEL - wyszukiwanie i unikalność po indeksie
+    @Column(name = "pesel_hash", length = 44)
+    private String peselHash;
+
     @Column(nullable = false)
     private Gender gender;
 
@@ -55,5 +65,11 @@ public class Citizen {
     @OneToMany(mappedBy = "citizen", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<DocumentIssueRequest> documentIssueRequests = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    private void updateBlindIndex() {
+        peselHash = BlindIndexUtil.hash(PESEL);
+    }
 }
 
@@ -19,7 +19,8 @@ import java.time.LocalDate;
 public class Document {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_seq")
+    @SequenceGenerator(name = "document_seq", sequenceName = "document_seq", allocationSize = 50)
     private Integer documentID;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -38,4 +39,7 @@ public class Document {
 
     @Column(nullable = false)
     private Boolean lost;
+
+    @Embedded
+    private StoredFile photo;
 }
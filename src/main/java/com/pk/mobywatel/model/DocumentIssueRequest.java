@@ -15,9 +15,11 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Inheritance(strategy = InheritanceType.JOINED)
+@Table(indexes = @Index(name = "idx_dir_processed_id", columnList = "processed, request_id"))
 public class DocumentIssueRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_issue_request_seq")
+    @SequenceGenerator(name = "document_issue_request_seq", sequenceName = "document_issue_request_seq", allocationSize = 50)
     private Integer requestID;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,4 +31,7 @@ public class DocumentIssueRequest {
 
     @Column(nullable = false)
     private Boolean approved;
+
+    @Embedded
+    private StoredFile photo;
 }
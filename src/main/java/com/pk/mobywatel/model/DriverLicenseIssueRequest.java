@@ -1,28 +1,29 @@
 package com.pk.mobywatel.model;
 
 import com.pk.mobywatel.util.LicenseCategory;
+import com.pk.mobywatel.util.LicenseCategoryMaskConverter;
 import jakarta.persistence.*;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Entity
+@Table(indexes = @Index(name = "idx_dlir_categories", columnList = "categories_mask, request_id"))
 @Getter
 @Setter
 @SuperBuilder
 @NoArgsConstructor
 public class DriverLicenseIssueRequest extends DocumentIssueRequest {
-    @ElementCollection(targetClass = LicenseCategory.class)
-    @CollectionTable(
-            name = "driver_license_request_categories",
-            joinColumns = @JoinColumn(name = "driver_license_id")
-    )
-    @Enumerated(EnumType.STRING)
+    // maska bitowa (LicenseCategoryMaskConverter) zamiast tabeli driver_license_request_categories - jedna kolumna, bez osobnego zapytania o kolekcję
+    @Convert(converter = LicenseCategoryMaskConverter.class)
+    @Column(name = "categories_mask", nullable = false)
+    @ColumnDefault("0")
     @Builder.Default
-    private List<LicenseCategory> categories = new ArrayList<>();
+    private Set<LicenseCategory> categories = EnumSet.noneOf(LicenseCategory.class);
 }
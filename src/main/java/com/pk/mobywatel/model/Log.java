@@ -10,14 +10,20 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "endpoint_log")
+@Table(name = "endpoint_log", indexes = {
+        @Index(name = "idx_endpoint_log_ts", columnList = "access_timestamp, log_id"),
+        @Index(name = "idx_endpoint_log_user_ts", columnList = "user_id, access_timestamp"),
+        @Index(name = "idx_endpoint_log_route_ts", columnList = "route, access_timestamp")
+})
 @Builder
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Log {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // allocationSize = 1: wiersze wstawia AuditLogInserter przez JDBC z endpoint_log_seq.NEXTVAL, po jednym ID na wiersz
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "endpoint_log_seq")
+    @SequenceGenerator(name = "endpoint_log_seq", sequenceName = "endpoint_log_seq", allocationSize = 1)
     private Integer logID;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,4 +35,22 @@ public class Log {
 
     @Column(nullable = false)
     private String description;
+
+    // Kolumny strukturalne (LoggingAspect) - filtrowanie bez LIKE po description.
+    // Null w wierszach sprzed ich wprowadzenia.
+    @Column(name = "http_method", length = 10)
+    private String httpMethod;
+
+    // szablon ścieżki z mapowania kontrolera, np. /api/photo/doc/{documentID}
+    @Column(length = 200)
+    private String route;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(name = "duration_us")
+    private Long durationMicros;
+
+    @Column(name = "exception_class", length = 200)
+    private String exceptionClass;
 }
\ No newline at end of file
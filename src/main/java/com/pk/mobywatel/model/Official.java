@@ -18,7 +18,8 @@ import java.util.List;
 public class Official {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "official_seq")
+    @SequenceGenerator(name = "official_seq", sequenceName = "official_seq", allocationSize = 50)
     @Column(unique = true, nullable = false)
     private Integer officialID;
 
@@ -14,10 +14,12 @@ import java.time.LocalDate;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_pdur_processed_id", columnList = "processed, request_id"))
 public class PersonalDataUpdateRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "personal_data_update_request_seq")
+    @SequenceGenerator(name = "personal_data_update_request_seq", sequenceName = "personal_data_update_request_seq", allocationSize = 50)
     private Integer requestID;
 
     @ManyToOne(fetch = FetchType.LAZY)
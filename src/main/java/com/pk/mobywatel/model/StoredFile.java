@@ -0,0 +1,33 @@
+package com.pk.mobywatel.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Metadane zdjęcia zapisanego na dysku - plik otwierany jest bezpośrednio po ścieżce, bez listowania katalogu
+@Embeddable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+    // względem katalogu głównego (documents / document-requests), np. "12/34.jpg"
+    @Column(name = "photo_path")
+    private String path;
+
+    @Column(name = "photo_extension", length = 10)
+    private String extension;
+
+    @Column(name = "photo_size")
+    private Long size;
+
+    @Column(name = "photo_content_type", length = 100)
+    private String contentType;
+
+    // SHA-256 treści (hex) liczony przy zapisie - silny ETag bez czytania pliku przy każdym pobraniu
+    @Column(name = "photo_hash", length = 64)
+    private String hash;
+}
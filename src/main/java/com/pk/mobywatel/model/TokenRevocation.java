@@ -0,0 +1,27 @@
+package com.pk.mobywatel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+// Bez relacji do UserModel - wpis musi przetrwać usunięcie konta
+@Entity
+@Table(name = "token_revocation")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+    @Id
+    private Integer userID;
+
+    @Column(nullable = false)
+    private Integer tokenVersion;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Timestamp revokedAt;
+}
@@ -1,9 +1,11 @@
 package com.pk.mobywatel.model;
 
+import com.pk.mobywatel.util.BlindIndexUtil;
 import com.pk.mobywatel.util.EncryptionConverter;
 import com.pk.mobywatel.util.Role;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,6 +14,7 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_user_email_hash", columnList = "email_hash", unique = true))
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,19 +22,35 @@ import java.util.List;
 public class UserModel implements UserDetails {
     @Id
     @Column(unique = true, nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_model_seq")
+    @SequenceGenerator(name = "user_model_seq", sequenceName = "user_model_seq", allocationSize = 50)
     private Integer userID;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     @Convert(converter = EncryptionConverter.class)
     private String email;
 
+    // HMAC emaila - wyszukiwanie i unikalność po indeksie, niezależnie od szyfrowania kolumny email
+    @Column(name = "email_hash", length = 44)
+    private String emailHash;
+
     @Column(nullable = false)
     private String password;
 
     @Enumerated(EnumType.STRING)
     private Role role;
 
+    // podbijana przy zmianie hasła/emaila lub usunięciu konta, unieważnia wcześniej wydane tokeny
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
+    @PrePersist
+    @PreUpdate
+    private void updateBlindIndex() {
+        emailHash = BlindIndexUtil.hash(email);
+    }
 
     // USER DETAILS
     @Override
@@ -3,16 +3,59 @@ package com.pk.mobywatel.repository;
 import com.pk.mobywatel.model.Citizen;
 import com.pk.mobywatel.model.Official;
 import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.response.CitizenDto;
+import com.pk.mobywatel.util.BlindIndexUtil;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface CitizenRepository extends JpaRepository<Citizen, Integer> {
-    Optional<Citizen> findByPESEL(String PESEL);
+    Optional<Citizen> findByPeselHash(String peselHash);
+
+    // wyszukiwanie po blind indeksie zamiast po deterministycznym szyfrogramie kolumny PESEL
+    default Optional<Citizen> findByPESEL(String PESEL) {
+        if (PESEL == null) {
+            return Optional.empty();
+        }
+        return findByPeselHash(BlindIndexUtil.hash(PESEL));
+    }
+
+    List<Citizen> findByPeselHashIsNullAndCitizenIDGreaterThanOrderByCitizenIDAsc(Integer citizenID, Limit limit);
+
     Optional<Citizen> findByUser(UserModel user);
+
+    @Query("SELECT c.peselHash FROM Citizen c WHERE c.peselHash IN :peselHashes")
+    Set<String> findExistingPeselHashes(@Param("peselHashes") Collection<String> peselHashes);
+
+    // rozwiązywanie obywatela z tokenu (CitizenResolver): po kluczu obcym user_id bez czytania UserModel,
+    // a dla tokenów bez claimu uid - JOIN po blind indeksie emaila
+    @Query("SELECT c.citizenID FROM Citizen c WHERE c.user.userID = :userID")
+    Optional<Integer> findCitizenIDByUserID(@Param("userID") Integer userID);
+
+    @Query("SELECT c.citizenID FROM Citizen c JOIN c.user u WHERE u.emailHash = :emailHash")
+    Optional<Integer> findCitizenIDByEmailHash(@Param("emailHash") String emailHash);
+
+    @Query("SELECT new com.pk.mobywatel.response.CitizenDto(c.citizenID, c.firstName, c.lastName, c.birthDate, c.PESEL, c.gender, u.email) " +
+            "FROM Citizen c JOIN c.user u WHERE u.userID = :userID")
+    Optional<CitizenDto> findCitizenDtoByUserID(@Param("userID") Integer userID);
+
+    @Query("SELECT new com.pk.mobywatel.response.CitizenDto(c.citizenID, c.firstName, c.lastName, c.birthDate, c.PESEL, c.gender, u.email) " +
+            "FROM Citizen c JOIN c.user u WHERE u.emailHash = :emailHash")
+    Optional<CitizenDto> findCitizenDtoByEmailHash(@Param("emailHash") String emailHash);
+
+    // keyset po citizenID (bez OFFSET), email z tego samego zapytania zamiast leniwego ładowania UserModel
+    @Query("SELECT new com.pk.mobywatel.response.CitizenDto(c.citizenID, c.firstName, c.lastName, c.birthDate, c.PESEL, c.gender, u.email) " +
+            "FROM Citizen c LEFT JOIN c.user u WHERE c.citizenID > :after ORDER BY c.citizenID")
+    List<CitizenDto> findCitizenPage(@Param("after") Integer after, Pageable pageable);
 }
@@ -1,6 +1,8 @@
 package com.pk.mobywatel.repository;
 
 import com.pk.mobywatel.model.DocumentIssueRequest;
+import com.pk.mobywatel.model.StoredFile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,10 +10,20 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface DocumentIssueRequestRepository extends JpaRepository<DocumentIssueRequest, Integer> {
     @Modifying
     @Transactional
     @Query("UPDATE DocumentIssueRequest u SET u.approved = :approved, u.processed = TRUE WHERE u.requestID = :requestID")
     void documentIssueRequestUpdate(@Param("requestID") Integer requestID, @Param("approved") Boolean approved);
+
+    // tylko nieprzetworzone, keyset po requestID (idx_dir_processed_id)
+    @Query("SELECT r FROM DocumentIssueRequest r WHERE r.processed = FALSE AND r.requestID > :after ORDER BY r.requestID")
+    List<DocumentIssueRequest> findPendingPage(@Param("after") Integer after, Pageable pageable);
+
+    @Query("SELECT r.photo FROM DocumentIssueRequest r WHERE r.requestID = :requestID AND r.citizen.citizenID = :citizenID")
+    Optional<StoredFile> findPhoto(@Param("requestID") Integer requestID, @Param("citizenID") Integer citizenID);
 }
@@ -2,7 +2,11 @@ package com.pk.mobywatel.repository;
 
 import com.pk.mobywatel.model.Citizen;
 import com.pk.mobywatel.model.Document;
+import com.pk.mobywatel.model.StoredFile;
+import com.pk.mobywatel.util.LicenseCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +15,25 @@ import java.util.Optional;
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Integer> {
     Optional<List<Document>> findByCitizen(Citizen citizen);
+
+    // Panel dokumentów obywatela jednym zapytaniem, niezależnie od liczby dokumentów: podtypy przez outer joiny
+    // JOINED (identity_card, driver_license), a kategorie praw jazdy są kolumną categories_mask w driver_license
+    @Query("SELECT d FROM Document d WHERE d.citizen.citizenID = :citizenID ORDER BY d.documentID")
+    List<Document> findDashboardDocuments(@Param("citizenID") Integer citizenID);
+
+    // posiadacze wszystkich kategorii z maski: jeden predykat BITAND zamiast joina z tabelą kategorii.
+    // BITAND nie wyznacza zakresu w b-drzewie, więc indeks (categories_mask, document_id) jest co najwyżej
+    // czytany w całości (INDEX FAST FULL SCAN) - węższy niż tabela, ale nadal O(liczba praw jazdy).
+    // Wyszukiwanie po indeksie wymagałoby indeksu funkcyjnego na BITAND(categories_mask, <bit>) albo bitmapowego.
+    @Query(value = "SELECT DISTINCT d.citizen_id FROM driver_license dl JOIN document d ON d.document_id = dl.document_id " +
+            "WHERE BITAND(dl.categories_mask, :mask) = :mask", nativeQuery = true)
+    List<Integer> findLicenseHolderIDs(@Param("mask") int mask);
+
+    default List<Integer> findLicenseHolderIDs(LicenseCategory category) {
+        return findLicenseHolderIDs(category.bit());
+    }
+
+    // tylko metadane zdjęcia; warunek na citizenID pilnuje, że obywatel pobiera własny dokument
+    @Query("SELECT d.photo FROM Document d WHERE d.documentID = :documentID AND d.citizen.citizenID = :citizenID")
+    Optional<StoredFile> findPhoto(@Param("documentID") Integer documentID, @Param("citizenID") Integer citizenID);
 }
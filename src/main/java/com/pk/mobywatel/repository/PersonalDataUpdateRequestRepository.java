@@ -1,6 +1,8 @@
 package com.pk.mobywatel.repository;
 
 import com.pk.mobywatel.model.PersonalDataUpdateRequest;
+import com.pk.mobywatel.response.PersonaDataUpdateRequestDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,10 +10,18 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Repository
 public interface PersonalDataUpdateRequestRepository extends JpaRepository<PersonalDataUpdateRequest, Integer> {
     @Modifying
     @Transactional
     @Query("UPDATE PersonalDataUpdateRequest u SET u.approved = :approved, u.processed = TRUE WHERE u.requestID = :requestID")
     void updatePersonalDataRequest(@Param("requestID") Integer requestID, @Param("approved") Boolean approved);
+
+    // tylko nieprzetworzone, keyset po requestID - koszt zależy od kolejki, nie od historii (idx_pdur_processed_id)
+    @Query("SELECT new com.pk.mobywatel.response.PersonaDataUpdateRequestDto(r.requestID, r.citizen.citizenID, r.requestedFirstName, " +
+            "r.requestedLastName, r.requestedGender, r.approved, r.processed, r.requestDate) " +
+            "FROM PersonalDataUpdateRequest r WHERE r.processed = FALSE AND r.requestID > :after ORDER BY r.requestID")
+    List<PersonaDataUpdateRequestDto> findPendingPage(@Param("after") Integer after, Pageable pageable);
 }
@@ -0,0 +1,19 @@
+package com.pk.mobywatel.repository;
+
+import com.pk.mobywatel.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Integer> {
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation t WHERE t.revokedAt < :before")
+    int deleteRevokedBefore(@Param("before") Timestamp before);
+}
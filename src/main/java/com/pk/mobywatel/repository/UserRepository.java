@@ -1,12 +1,33 @@
 package com.pk.mobywatel.repository;
 
 import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.util.BlindIndexUtil;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserModel, Integer> {
-    Optional<UserModel> findByEmail(String email);
+    Optional<UserModel> findByEmailHash(String emailHash);
+
+    // wyszukiwanie po blind indeksie zamiast po deterministycznym szyfrogramie kolumny email
+    default Optional<UserModel> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return findByEmailHash(BlindIndexUtil.hash(email));
+    }
+
+    List<UserModel> findByEmailHashIsNullAndUserIDGreaterThanOrderByUserIDAsc(Integer userID, Limit limit);
+
+    // zbiorcze sprawdzenie zajętości emaili (import obywateli) - jedno zapytanie na porcję zamiast jednego na wiersz
+    @Query("SELECT u.emailHash FROM UserModel u WHERE u.emailHash IN :emailHashes")
+    Set<String> findExistingEmailHashes(@Param("emailHashes") Collection<String> emailHashes);
 }
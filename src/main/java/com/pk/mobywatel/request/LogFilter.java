@@ -0,0 +1,11 @@
+package com.pk.mobywatel.request;
+
+import java.time.Instant;
+
+// filtry /api/admin/logs i /api/admin/logs/export; null = bez filtra, zakres czasu [from, to)
+public record LogFilter(Instant from,
+                        Instant to,
+                        Integer userID,
+                        Integer status,
+                        String route) {
+}
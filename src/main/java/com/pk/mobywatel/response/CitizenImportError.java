@@ -0,0 +1,5 @@
+package com.pk.mobywatel.response;
+
+public record CitizenImportError(long line,
+                                 String message) {
+}
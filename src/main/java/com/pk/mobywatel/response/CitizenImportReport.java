@@ -0,0 +1,10 @@
+package com.pk.mobywatel.response;
+
+import java.util.List;
+
+// errors zawiera najwyżej app.import.max-reported-errors pozycji; rejected liczy wszystkie odrzucone wiersze
+public record CitizenImportReport(long imported,
+                                  long rejected,
+                                  List<CitizenImportError> errors,
+                                  boolean errorsTruncated) {
+}
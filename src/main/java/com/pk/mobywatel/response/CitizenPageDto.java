@@ -0,0 +1,8 @@
+package com.pk.mobywatel.response;
+
+import java.util.List;
+
+// next - citizenID ostatniego obywatela na stronie, przekazywany jako "after" do pobrania kolejnej; null na ostatniej stronie
+public record CitizenPageDto(List<CitizenDto> citizens,
+                             Integer next) {
+}
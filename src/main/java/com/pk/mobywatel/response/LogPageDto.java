@@ -0,0 +1,8 @@
+package com.pk.mobywatel.response;
+
+import java.util.List;
+
+// wpisy od najnowszych; next - kursor ostatniego wpisu na stronie, przekazywany jako "after"; null na ostatniej stronie
+public record LogPageDto(List<LogResponse> logs,
+                         String next) {
+}
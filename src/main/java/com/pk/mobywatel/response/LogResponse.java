@@ -5,5 +5,10 @@ import java.sql.Timestamp;
 public record LogResponse(Integer logID,
                           Integer userID,
                           Timestamp accessTimestamp,
-                          String description) {
+                          String description,
+                          String httpMethod,
+                          String route,
+                          Integer statusCode,
+                          Long durationMicros,
+                          String exceptionClass) {
 }
@@ -0,0 +1,8 @@
+package com.pk.mobywatel.response;
+
+import java.util.List;
+
+// next - requestID ostatniego wniosku na stronie (parametr "after" kolejnej strony); null na ostatniej stronie
+public record PersonalDataUpdateRequestPageDto(List<PersonaDataUpdateRequestDto> requests,
+                                               Integer next) {
+}
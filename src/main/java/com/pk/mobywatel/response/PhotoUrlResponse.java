@@ -0,0 +1,6 @@
+package com.pk.mobywatel.response;
+
+// expires - czas wygaśnięcia linku w sekundach epoki
+public record PhotoUrlResponse(String url,
+                               Long expires) {
+}
@@ -1,8 +1,5 @@
 package com.pk.mobywatel.service;
 
-import com.pk.mobywatel.model.Log;
-import com.pk.mobywatel.repository.LogRepository;
-import com.pk.mobywatel.response.LogResponse;
 import com.pk.mobywatel.response.OfficialDto;
 import com.pk.mobywatel.model.Official;
 import com.pk.mobywatel.model.UserModel;
@@ -13,7 +10,7 @@ import com.pk.mobywatel.util.Role;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -25,9 +22,10 @@ public class AdminService {
 
     private final OfficialRepository officialRepository;
     private final DataValidator validator;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
-    private final LogRepository logRepository;
+    private final TokenVersionService tokenVersionService;
+    private final UserDetailsCache userDetailsCache;
 
     public List<OfficialDto> fetchOfficialsData(){
         List<Official> officials = officialRepository.findAll();
@@ -86,11 +84,15 @@ public class AdminService {
 
         Official official = officialRepository.findById(body.officialID()).orElseThrow(() -> new BadRequestException("Official not found"));
         UserModel user = official.getUser();
+        boolean credentialsChanged = false;
+        // przed zmianą emaila, bo kluczem w cache jest hash obecnego
+        userDetailsCache.invalidate(user);
 
         // Jeśli pole jest null lub składa sie z białych znaków to jest pomijane (nie wyrzuca błędu)
         if(validator.validateUpdateField(email)){
             if(validator.checkEmailRegex(email)){
                 if(!email.equals(user.getEmail()) && validator.checkIfEmailIsTaken(email)) throw new BadRequestException("Email is taken");
+                credentialsChanged = !email.equals(user.getEmail());
                 user.setEmail(email);
             }
             else throw new BadRequestException("Invalid email");
@@ -99,9 +101,12 @@ public class AdminService {
         if(validator.validateUpdateField(password)){
             if(validator.checkPasswordRegex(password)) user.setPassword(passwordEncoder.encode(password));
             else throw new BadRequestException("Invalid password");
-
+            credentialsChanged = true;
         }
 
+        // wcześniej wydane tokeny niosą stary email/hasło, więc je unieważniamy
+        if(credentialsChanged) tokenVersionService.revoke(user);
+
         if(validator.validateUpdateField(firstName)) official.setFirstName(firstName);
         if(validator.validateUpdateField(lastName)) official.setLastName(lastName);
         if(validator.validateUpdateField(position)) official.setPosition(position);
@@ -113,6 +118,8 @@ public class AdminService {
     @Transactional
     public void deleteOfficialAccount(Integer officialID) throws BadRequestException {
         Official official = officialRepository.findById(officialID).orElseThrow(() ->new BadRequestException("Official not found"));
+        if(official.getUser() != null) tokenVersionService.revoke(official.getUser());
+        userDetailsCache.invalidate(official.getUser());
         officialRepository.delete(official);
     }
 
@@ -125,17 +132,4 @@ public class AdminService {
         
         return new OfficialDto(official.getOfficialID(), official.getFirstName(), official.getLastName(), official.getPosition(), official.getUser().getEmail());
     }
-
-    public List<LogResponse> fetchLogs() {
-        List<Log> logs = logRepository.findAll();
-
-        return logs.stream()
-                .map(log ->
-                    new LogResponse(log.getLogID(),
-                            log.getUserModel().getUserID(),
-                            log.getAccessTimestamp(),
-                            log.getDescription())
-                )
-                .toList();
-    }
 }
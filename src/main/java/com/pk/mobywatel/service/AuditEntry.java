@@ -0,0 +1,26 @@
+package com.pk.mobywatel.service;
+
+import java.sql.Timestamp;
+
+// Wpis endpoint_log oczekujący w buforze AuditLogWriter albo w segmencie AuditSegmentSink (userID zamiast encji - bez sesji Hibernate na wątku zapisu).
+// Tekst description jest składany dopiero na wątku zapisu, nie w wątku requestu.
+public record AuditEntry(Integer userID,
+                         Timestamp accessTimestamp,
+                         String httpMethod,
+                         String route,
+                         String requestURL,
+                         int statusCode,
+                         long durationMicros,
+                         String exceptionClass,
+                         String exceptionMessage) {
+
+    public String description() {
+        String endpoint = "Endpoint: " + httpMethod + " " + requestURL;
+        String suffix = userID == null ? "; no user!" : "";
+
+        if (exceptionClass != null) {
+            return endpoint + "; Exception: " + exceptionMessage + suffix;
+        }
+        return endpoint + " accessed; HTTP status code: " + statusCode + suffix;
+    }
+}
@@ -0,0 +1,63 @@
+package com.pk.mobywatel.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.List;
+
+// Wspólny batch insert do endpoint_log dla AuditLogWriter i AuditSegmentReplayer.
+@Component
+@RequiredArgsConstructor
+public class AuditLogInserter {
+    private static final String INSERT_SQL = "INSERT INTO endpoint_log (log_id, user_id, access_timestamp, description, http_method, route, status_code, duration_us, exception_class) " +
+            "VALUES (endpoint_log_seq.NEXTVAL, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    // route i exception_class
+    private static final int MAX_NAME_LENGTH = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // zwraca liczbę wpisów, których nie udało się zapisać
+    public int insert(List<AuditEntry> batch) {
+        try {
+            insertBatch(batch);
+            return 0;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                System.out.println("Audit log entry could not be written: " + e.getMessage());
+                return 1;
+            }
+
+            // jeden błędny wiersz (np. userID usuniętego użytkownika) nie może odrzucić całej porcji
+            int failed = 0;
+            for (AuditEntry entry : batch) {
+                failed += insert(List.of(entry));
+            }
+            return failed;
+        }
+    }
+
+    private void insertBatch(List<AuditEntry> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+            if (entry.userID() == null) {
+                ps.setNull(1, Types.INTEGER);
+            } else {
+                ps.setInt(1, entry.userID());
+            }
+            ps.setTimestamp(2, entry.accessTimestamp());
+
+            ps.setString(3, truncate(entry.description(), MAX_DESCRIPTION_LENGTH));
+            ps.setString(4, entry.httpMethod());
+            ps.setString(5, truncate(entry.route(), MAX_NAME_LENGTH));
+            ps.setInt(6, entry.statusCode());
+            ps.setLong(7, entry.durationMicros());
+            ps.setString(8, truncate(entry.exceptionClass(), MAX_NAME_LENGTH));
+        });
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
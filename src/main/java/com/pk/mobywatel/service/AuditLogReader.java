@@ -0,0 +1,187 @@
+package com.pk.mobywatel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pk.mobywatel.request.LogFilter;
+import com.pk.mobywatel.response.LogPageDto;
+import com.pk.mobywatel.response.LogResponse;
+import lombok.RequiredArgsConstructor;
+import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Odczyt endpoint_log z filtrami bez ładowania encji: jedno zapytanie JDBC, user_id wprost z kolumny (bez N+1 po UserModel).
+// Strony: keyset po (access_timestamp, log_id) malejąco - kolejne strony nie skanują wcześniejszych wierszy,
+// a filtr po użytkowniku / route + zakres czasu to range scan po idx_endpoint_log_user_ts / idx_endpoint_log_route_ts.
+// Bez nich (pulpit bez filtra, sam zakres czasu albo status) strona to odczyt idx_endpoint_log_ts wstecz
+// od kursora z zatrzymaniem po FETCH FIRST - bez pełnego skanu i sortowania tabeli.
+// Eksport NDJSON idzie kursorem z ograniczonym fetch size prosto do strumienia odpowiedzi - pamięć nie rośnie z liczbą wierszy.
+@Service
+@RequiredArgsConstructor
+public class AuditLogReader {
+    private static final String SELECT_SQL = "SELECT log_id, user_id, access_timestamp, description, http_method, route, status_code, duration_us, exception_class " +
+            "FROM endpoint_log WHERE 1 = 1";
+    private static final String ORDER_SQL = " ORDER BY access_timestamp DESC, log_id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.pagination.logs.page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${app.audit.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    public LogPageDto fetchPage(LogFilter filter, String after, Integer size) throws BadRequestException {
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = where(filter, params);
+
+        if (after != null && !after.isBlank()) {
+            Cursor cursor = Cursor.parse(after);
+            sql.append(" AND (access_timestamp < ? OR (access_timestamp = ? AND log_id < ?))");
+            params.add(cursor.accessTimestamp());
+            params.add(cursor.accessTimestamp());
+            params.add(cursor.logID());
+        }
+
+        // jeden wiersz więcej, żeby wiedzieć czy istnieje następna strona
+        sql.append(ORDER_SQL).append(" FETCH FIRST ? ROWS ONLY");
+        params.add(pageSize + 1);
+
+        List<LogResponse> logs = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> map(rs), params.toArray());
+
+        if (logs.size() <= pageSize) {
+            return new LogPageDto(logs, null);
+        }
+
+        List<LogResponse> page = logs.subList(0, pageSize);
+        LogResponse last = page.get(pageSize - 1);
+        return new LogPageDto(page, new Cursor(last.accessTimestamp(), last.logID()).toString());
+    }
+
+    // jeden obiekt JSON na linię; błąd zapisu (np. rozłączony klient) przerywa zapytanie i zwalnia kursor.
+    // Zwraca liczbę zapisanych wierszy (archiwizacja w AuditLogRetention).
+    public long export(LogFilter filter, OutputStream out) throws IOException, BadRequestException {
+        List<Object> params = new ArrayList<>();
+        String sql = where(filter, params).append(ORDER_SQL).toString();
+        ObjectWriter writer = objectMapper.writerFor(LogResponse.class);
+        long[] rows = {0};
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setFetchSize(exportFetchSize);
+                new ArgumentPreparedStatementSetter(params.toArray()).setValues(statement);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    out.write(writer.writeValueAsBytes(map(rs)));
+                    out.write('\n');
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        out.flush();
+        return rows[0];
+    }
+
+    private static StringBuilder where(LogFilter filter, List<Object> params) throws BadRequestException {
+        if (filter.from() != null && filter.to() != null && !filter.from().isBefore(filter.to())) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+
+        if (filter.userID() != null) {
+            sql.append(" AND user_id = ?");
+            params.add(filter.userID());
+        }
+        if (filter.route() != null && !filter.route().isBlank()) {
+            sql.append(" AND route = ?");
+            params.add(filter.route());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND access_timestamp >= ?");
+            params.add(Timestamp.from(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND access_timestamp < ?");
+            params.add(Timestamp.from(filter.to()));
+        }
+        if (filter.status() != null) {
+            sql.append(" AND status_code = ?");
+            params.add(filter.status());
+        }
+
+        return sql;
+    }
+
+    private static LogResponse map(ResultSet rs) throws SQLException {
+        return new LogResponse(
+                rs.getInt("log_id"),
+                nullableInt(rs, "user_id"),
+                rs.getTimestamp("access_timestamp"),
+                rs.getString("description"),
+                rs.getString("http_method"),
+                rs.getString("route"),
+                nullableInt(rs, "status_code"),
+                nullableLong(rs, "duration_us"),
+                rs.getString("exception_class"));
+    }
+
+    private static Integer nullableInt(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    // kursor "<access_timestamp ISO-8601>_<log_id>", np. 2026-10-17T08:15:30.123Z_4711
+    private record Cursor(Timestamp accessTimestamp, Integer logID) {
+        static Cursor parse(String value) throws BadRequestException {
+            int separator = value.lastIndexOf('_');
+
+            try {
+                return new Cursor(Timestamp.from(Instant.parse(value.substring(0, separator))), Integer.valueOf(value.substring(separator + 1)));
+            } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return accessTimestamp.toInstant() + "_" + logID;
+        }
+    }
+}
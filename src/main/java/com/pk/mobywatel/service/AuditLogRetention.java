@@ -0,0 +1,188 @@
+package com.pk.mobywatel.service;
+
+import com.pk.mobywatel.request.LogFilter;
+import lombok.RequiredArgsConstructor;
+import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+// Retencja endpoint_log (domyślnie wyłączona, app.audit.retention.enabled): wpisy starsze niż app.audit.retention.days
+// są archiwizowane do plików i usuwane. Gdy tabela jest partycjonowana dziennie (migracja w PRODUCTION.md - aplikacja
+// sama nie zmienia schematu), dzień znika przez DROP PARTITION - operacja na metadanych, niezależna od liczby wierszy
+// (indeksy po user/route są LOCAL, PK utrzymuje asynchroniczna konserwacja indeksów globalnych).
+// Bez partycji te same dni są usuwane porcjami DELETE - wolniej, ale bez zmian schematu. Ta ścieżka wymaga indeksu
+// z access_timestamp na początku (idx_endpoint_log_ts): MIN, eksport dnia i każda porcja DELETE to wtedy range scan,
+// a bez niego każda z nich skanowałaby całą tabelę - dlatego bez indeksu retencja nic nie robi i tylko to zgłasza.
+// Jedno uruchomienie obejmuje najwyżej max-days-per-run najstarszych dni, więc zaległości (np. pierwsza noc po włączeniu)
+// są odrabiane przez kolejne noce zamiast jednym wielogodzinnym zadaniem.
+// Archiwum: <archive-dir>/endpoint_log-RRRR-MM-DD.ndjson.gz, jeden obiekt JSON na linię w formacie /api/admin/logs/export
+// (patrz PRODUCTION.md). Plik powstaje jako .tmp i dopiero kompletny jest przenoszony pod docelową nazwę,
+// więc istniejący plik oznacza dzień już zarchiwizowany (ponowne uruchomienie po awarii tylko dokańcza usuwanie).
+// Przy kilku instancjach retencję włącza się na jednej.
+@Service
+@RequiredArgsConstructor
+public class AuditLogRetention {
+    private static final String TABLE = "ENDPOINT_LOG";
+    private static final String PARTITIONED_SQL = "SELECT partitioned FROM user_tables WHERE table_name = '" + TABLE + "'";
+    private static final String PARTITIONS_SQL = "SELECT partition_name, high_value FROM user_tab_partitions WHERE table_name = '" + TABLE + "' AND interval = 'YES'";
+    private static final String OLDEST_SQL = "SELECT MIN(access_timestamp) FROM endpoint_log WHERE access_timestamp < ?";
+    private static final String DELETE_SQL = "DELETE FROM endpoint_log WHERE access_timestamp >= ? AND access_timestamp < ? AND ROWNUM <= ?";
+    private static final String TIMESTAMP_INDEX_SQL = "SELECT COUNT(*) FROM user_ind_columns " +
+            "WHERE table_name = '" + TABLE + "' AND column_name = 'ACCESS_TIMESTAMP' AND column_position = 1";
+    private static final Pattern HIGH_VALUE = Pattern.compile("TIMESTAMP' (\\d{4}-\\d{2}-\\d{2}) 00:00:00'");
+    private static final Pattern PARTITION_NAME = Pattern.compile("[A-Z0-9_$#]+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditLogReader auditLogReader;
+
+    @Value("${app.audit.retention.enabled:false}")
+    private boolean enabled;
+
+    // ile pełnych dni wpisów zostaje w endpoint_log
+    @Value("${app.audit.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${app.audit.retention.archive-dir:audit-archive}")
+    private String archiveDir;
+
+    @Value("${app.audit.retention.delete-batch-size:10000}")
+    private int deleteBatchSize;
+
+    @Value("${app.audit.retention.max-days-per-run:7}")
+    private int maxDaysPerRun;
+
+    private record ExpiredDay(LocalDate day, String partition) {}
+
+    @Scheduled(cron = "${app.audit.retention.cron:0 15 3 * * *}")
+    public void enforce() {
+        if (!enabled) {
+            return;
+        }
+
+        boolean partitioned = isPartitioned();
+        if (!partitioned && !hasTimestampIndex()) {
+            System.out.println("Audit retention skipped: endpoint_log is not partitioned and has no index on access_timestamp (see PRODUCTION.md)");
+            return;
+        }
+
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        List<ExpiredDay> expired = partitioned ? expiredPartitions(cutoff) : expiredDays(cutoff);
+
+        for (ExpiredDay day : expired.subList(0, Math.min(expired.size(), maxDaysPerRun))) {
+            try {
+                long archived = archive(day.day());
+
+                if (day.partition() != null) {
+                    jdbcTemplate.execute("ALTER TABLE endpoint_log DROP PARTITION " + day.partition() + " UPDATE INDEXES");
+                } else {
+                    deleteDay(day.day());
+                }
+
+                System.out.println("Audit retention: " + day.day() + " archived (" + (archived < 0 ? "already archived" : archived + " entries") + ") and removed");
+            } catch (IOException | DataAccessException e) {
+                // dzień zostaje w tabeli; kolejne uruchomienie spróbuje ponownie
+                System.out.println("Audit retention: " + day.day() + " failed: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // liczba zapisanych wpisów albo -1, gdy archiwum dnia już istnieje
+    private long archive(LocalDate day) throws IOException {
+        Path directory = Paths.get(archiveDir);
+        Path target = directory.resolve("endpoint_log-" + day.format(DateTimeFormatter.ISO_LOCAL_DATE) + ".ndjson.gz");
+
+        if (Files.exists(target)) {
+            return -1;
+        }
+
+        Files.createDirectories(directory);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        ZoneId zone = ZoneId.systemDefault();
+        LogFilter filter = new LogFilter(day.atStartOfDay(zone).toInstant(), day.plusDays(1).atStartOfDay(zone).toInstant(), null, null, null);
+        long rows;
+
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)), 64 * 1024)) {
+            rows = auditLogReader.export(filter, out);
+        } catch (BadRequestException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    private void deleteDay(LocalDate day) {
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+
+        // porcjami, żeby nie trzymać jednej ogromnej transakcji i undo
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_SQL, from, to, deleteBatchSize);
+        } while (deleted > 0);
+    }
+
+    private List<ExpiredDay> expiredPartitions(LocalDate cutoff) {
+        List<ExpiredDay> expired = new ArrayList<>();
+
+        jdbcTemplate.query(PARTITIONS_SQL, row -> {
+            String name = row.getString("partition_name");
+            Matcher high = HIGH_VALUE.matcher(row.getString("high_value"));
+
+            // partycja dzienna: [high - 1 dzień, high)
+            if (high.find() && PARTITION_NAME.matcher(name).matches()) {
+                LocalDate day = LocalDate.parse(high.group(1)).minusDays(1);
+                if (day.isBefore(cutoff)) {
+                    expired.add(new ExpiredDay(day, name));
+                }
+            }
+        });
+
+        expired.sort(Comparator.comparing(ExpiredDay::day));
+        return expired;
+    }
+
+    private List<ExpiredDay> expiredDays(LocalDate cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_SQL, Timestamp.class, Timestamp.valueOf(cutoff.atStartOfDay()));
+        List<ExpiredDay> expired = new ArrayList<>();
+
+        if (oldest != null) {
+            for (LocalDate day = oldest.toLocalDateTime().toLocalDate(); day.isBefore(cutoff); day = day.plusDays(1)) {
+                expired.add(new ExpiredDay(day, null));
+            }
+        }
+        return expired;
+    }
+
+    private boolean hasTimestampIndex() {
+        Integer indexes = jdbcTemplate.queryForObject(TIMESTAMP_INDEX_SQL, Integer.class);
+        return indexes != null && indexes > 0;
+    }
+
+    private boolean isPartitioned() {
+        List<String> partitioned = jdbcTemplate.queryForList(PARTITIONED_SQL, String.class);
+        return !partitioned.isEmpty() && "YES".equals(partitioned.get(0));
+    }
+}
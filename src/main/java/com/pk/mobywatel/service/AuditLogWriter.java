@@ -0,0 +1,195 @@
+package com.pk.mobywatel.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Asynchroniczny zapis endpoint_log: LoggingAspect tylko wrzuca wpis do bufora, a osobny wątek
+// zapisuje porcje jednym JDBC batch insertem (jeden commit na porcję zamiast insert + commit na request).
+// Bufor jest ograniczony (capacity); po jego zapełnieniu obowiązuje app.audit.overflow-policy:
+//  BLOCK - request czeka maks. block-timeout-ms na miejsce, potem wpis jest odrzucany,
+//  DROP  - wpis jest od razu odrzucany.
+// Odrzucone wpisy są liczone w metryce audit.dropped, zajętość bufora w audit.queue.depth.
+@Service
+@ConditionalOnProperty(name = "app.audit.sink", havingValue = "DATABASE", matchIfMissing = true)
+@RequiredArgsConstructor
+public class AuditLogWriter implements AuditSink {
+    public enum OverflowPolicy { BLOCK, DROP }
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final AuditLogInserter auditLogInserter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.audit.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${app.audit.block-timeout-ms:50}")
+    private long blockTimeoutMs;
+
+    @Value("${app.audit.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    // ConcurrentLinkedQueue jest nieblokująca; limit pilnuje licznik depth (rezerwacja miejsca przez CAS)
+    private final ConcurrentLinkedQueue<AuditEntry> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private Counter dropped;
+    private Counter written;
+    private Counter failed;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("audit.queue.depth", depth, AtomicInteger::get)
+                .description("Audit log entries waiting to be written")
+                .register(meterRegistry);
+        dropped = Counter.builder("audit.dropped")
+                .description("Audit log entries rejected because the buffer was full")
+                .register(meterRegistry);
+        written = Counter.builder("audit.written")
+                .description("Audit log entries written to endpoint_log")
+                .register(meterRegistry);
+        failed = Counter.builder("audit.write.failures")
+                .description("Audit log entries that could not be inserted")
+                .register(meterRegistry);
+
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("audit-log-writer")
+                .daemon(true)
+                .start(this::run);
+    }
+
+    @Override
+    public void submit(AuditEntry entry) {
+        // po zamknięciu wątku zapisu wpis idzie od razu do bazy
+        if (!running) {
+            write(List.of(entry));
+            return;
+        }
+
+        if (tryEnqueue(entry)) {
+            drainIfStopped();
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+            LockSupport.unpark(writerThread);
+
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (tryEnqueue(entry)) {
+                    drainIfStopped();
+                    return;
+                }
+            }
+        }
+
+        dropped.increment();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        // wątek zapisu po wyjściu z pętli opróżnia bufor do końca
+        writerThread.join(shutdownTimeoutMs);
+
+        if (writerThread.isAlive()) {
+            System.out.println("Audit log writer did not finish within " + shutdownTimeoutMs + " ms; " + depth.get() + " entries pending");
+            return;
+        }
+
+        // wpisy dodane przez requesty, które minęły sprawdzenie running tuż przed zatrzymaniem,
+        // a trafiły do bufora po ostatnim drain wątku zapisu
+        drain(new ArrayList<>(batchSize));
+    }
+
+    // wpis dodany już po zatrzymaniu mógł się minąć z ostatnim drain (wątku zapisu i shutdown) - zapisuje go sam request
+    private void drainIfStopped() {
+        if (!running) {
+            drain(new ArrayList<>(batchSize));
+        }
+    }
+
+    private boolean tryEnqueue(AuditEntry entry) {
+        int current;
+        do {
+            current = depth.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!depth.compareAndSet(current, current + 1));
+
+        buffer.offer(entry);
+
+        if (current + 1 >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    private void run() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        while (running) {
+            // budzi się po flush-interval albo wcześniej, gdy w buforze uzbiera się pełna porcja
+            if (depth.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            drain(batch);
+        }
+
+        drain(batch);
+    }
+
+    private void drain(List<AuditEntry> batch) {
+        while (true) {
+            AuditEntry entry;
+            while (batch.size() < batchSize && (entry = buffer.poll()) != null) {
+                batch.add(entry);
+            }
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            depth.addAndGet(-batch.size());
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditEntry> batch) {
+        int rejected = auditLogInserter.insert(batch);
+        written.increment(batch.size() - rejected);
+        failed.increment(rejected);
+    }
+}
@@ -0,0 +1,234 @@
+package com.pk.mobywatel.service;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Format pliku segmentu audytu (AuditSegmentSink / AuditSegmentVerifier / AuditSegmentReplayer).
+// Nagłówek: magic "MOBYAUD1", wersja, numer segmentu, czas utworzenia (ms), hash ostatniego rekordu poprzedniego segmentu.
+// Rekord: długość treści (int), treść (AuditEntry binarnie), SHA-256(hash poprzedniego rekordu | długość | treść).
+// Długość 0 = koniec zapisanych danych (reszta zmapowanego pliku to zera).
+// Zmiana, usunięcie albo przestawienie rekordu psuje łańcuch od tego miejsca, a usunięcie całego segmentu
+// widać po numerze i hashu w nagłówku następnego.
+public final class AuditSegment {
+    public static final long MAGIC = 0x4D4F4259_41554431L;
+    public static final int VERSION = 1;
+    public static final int HASH_LENGTH = 32;
+    public static final int HEADER_LENGTH = 8 + 4 + 8 + 8 + HASH_LENGTH;
+    public static final byte[] GENESIS = new byte[HASH_LENGTH];
+
+    // segment otwarty do zapisu, zamknięty, wczytany do bazy
+    public static final String OPEN = ".open";
+    public static final String SEALED = ".seg";
+    public static final String REPLAYED = ".replayed";
+
+    // dłuższe napisy (np. komunikat wyjątku) są obcinane; w bazie i tak trafiają do kolumn do 255 znaków
+    private static final int MAX_STRING_LENGTH = 2000;
+    private static final int NULL_LENGTH = -1;
+
+    public record Header(long sequence, long createdMillis, byte[] previousHash) {}
+
+    // error == null: cały segment poprawny; inaczej records / lastHash / end dotyczą ostatniego poprawnego rekordu
+    public record Scan(Path file, Header header, long records, byte[] lastHash, long end, String error) {
+        public boolean valid() {
+            return error == null;
+        }
+    }
+
+    private AuditSegment() {
+    }
+
+    public static String fileName(long sequence, String suffix) {
+        return "audit-" + String.format("%016d", sequence) + suffix;
+    }
+
+    // segmenty w katalogu (wszystkie stany) w kolejności numerów
+    public static List<Path> list(Path directory, String... suffixes) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        if (!name.startsWith("audit-")) {
+                            return false;
+                        }
+                        for (String suffix : suffixes) {
+                            if (name.endsWith(suffix)) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public static List<Path> list(Path directory) throws IOException {
+        return list(directory, OPEN, SEALED, REPLAYED);
+    }
+
+    public static void writeHeader(ByteBuffer buffer, long sequence, long createdMillis, byte[] previousHash) {
+        buffer.putLong(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(sequence);
+        buffer.putLong(createdMillis);
+        buffer.put(previousHash);
+    }
+
+    public static void encode(AuditEntry entry, ByteBuffer buffer) {
+        buffer.putInt(entry.userID() == null ? NULL_LENGTH : entry.userID());
+        buffer.putLong(entry.accessTimestamp().getTime());
+        buffer.putInt(entry.accessTimestamp().getNanos());
+        putString(buffer, entry.httpMethod());
+        putString(buffer, entry.route());
+        putString(buffer, entry.requestURL());
+        buffer.putInt(entry.statusCode());
+        buffer.putLong(entry.durationMicros());
+        putString(buffer, entry.exceptionClass());
+        putString(buffer, entry.exceptionMessage());
+    }
+
+    public static AuditEntry decode(ByteBuffer buffer) {
+        int userID = buffer.getInt();
+        Timestamp accessTimestamp = new Timestamp(buffer.getLong());
+        accessTimestamp.setNanos(buffer.getInt());
+
+        return new AuditEntry(
+                userID == NULL_LENGTH ? null : userID,
+                accessTimestamp,
+                getString(buffer),
+                getString(buffer),
+                getString(buffer),
+                buffer.getInt(),
+                buffer.getLong(),
+                getString(buffer),
+                getString(buffer));
+    }
+
+    // hash rekordu: digest(poprzedni hash | bajty [offset, offset + length) z buffer), bez zmiany pozycji bufora
+    public static byte[] chain(MessageDigest digest, byte[] previousHash, ByteBuffer buffer, int offset, int length) {
+        digest.update(previousHash);
+        digest.update(buffer.duplicate().position(offset).limit(offset + length));
+        return digest.digest();
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String hex(byte[] hash) {
+        return HexFormat.of().formatHex(hash);
+    }
+
+    // Czyta segment od początku, sprawdzając łańcuch; consumer (może być null) dostaje tylko rekordy ze zgodnym hashem.
+    public static Scan scan(Path file, Consumer<AuditEntry> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_LENGTH) {
+                return new Scan(file, null, 0, GENESIS, 0, "truncated header");
+            }
+            if (size > Integer.MAX_VALUE) {
+                return new Scan(file, null, 0, GENESIS, 0, "segment larger than 2 GB");
+            }
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getLong() != MAGIC || buffer.getInt() != VERSION) {
+                return new Scan(file, null, 0, GENESIS, 0, "not an audit segment");
+            }
+
+            byte[] previousHash = new byte[HASH_LENGTH];
+            Header header = new Header(buffer.getLong(), buffer.getLong(), previousHash);
+            buffer.get(previousHash);
+
+            MessageDigest digest = sha256();
+            byte[] hash = previousHash;
+            byte[] stored = new byte[HASH_LENGTH];
+            long records = 0;
+            int end = buffer.position();
+
+            while (buffer.remaining() >= 4) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+
+                if (length == 0) {
+                    // za znacznikiem końca mogą być tylko zera - inaczej ktoś "ukrył" dalsze rekordy
+                    while (buffer.hasRemaining()) {
+                        if (buffer.get() != 0) {
+                            return new Scan(file, header, records, hash, start, "data after end marker at offset " + start);
+                        }
+                    }
+                    break;
+                }
+                if (length < 0 || length > buffer.remaining() - HASH_LENGTH) {
+                    return new Scan(file, header, records, hash, start, "invalid record length at offset " + start);
+                }
+
+                byte[] expected = chain(digest, hash, buffer, start, 4 + length);
+                buffer.position(start + 4 + length);
+                buffer.get(stored);
+
+                if (!MessageDigest.isEqual(expected, stored)) {
+                    return new Scan(file, header, records, hash, start, "hash mismatch at record " + records + " (offset " + start + ")");
+                }
+
+                if (consumer != null) {
+                    try {
+                        consumer.accept(decode(buffer.duplicate().position(start + 4).limit(start + 4 + length)));
+                    } catch (BufferUnderflowException | IllegalArgumentException e) {
+                        return new Scan(file, header, records, hash, start, "malformed record " + records + " (offset " + start + ")");
+                    }
+                }
+
+                hash = expected;
+                records++;
+                end = buffer.position();
+            }
+
+            return new Scan(file, header, records, hash, end, null);
+        }
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(NULL_LENGTH);
+            return;
+        }
+
+        byte[] bytes = (value.length() > MAX_STRING_LENGTH ? value.substring(0, MAX_STRING_LENGTH) : value).getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package com.pk.mobywatel.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Wczytuje zamknięte segmenty (.seg) do endpoint_log poza ścieżką requestów - domyślnie wyłączone,
+// włącza się harmonogramem app.audit.segment.replay.cron (np. w nocy) na instancji z dostępem do katalogu.
+// Segment z przerwanym łańcuchem nie jest wczytywany (zostaje do sprawdzenia AuditSegmentVerifier).
+// Jeden segment = jedna transakcja, potem zmiana nazwy na .replayed; awaria między commitem a zmianą nazwy
+// oznacza ponowne wczytanie segmentu (duplikaty), nigdy utratę wpisów.
+@Service
+public class AuditSegmentReplayer {
+    private final Path directory;
+    private final int batchSize;
+    private final AuditLogInserter auditLogInserter;
+    private final TransactionTemplate transactionTemplate;
+
+    public AuditSegmentReplayer(@Value("${app.audit.segment.directory:audit-segments}") String directory,
+                                @Value("${app.audit.batch-size:200}") int batchSize,
+                                AuditLogInserter auditLogInserter,
+                                TransactionTemplate transactionTemplate) {
+        this.directory = Paths.get(directory);
+        this.batchSize = batchSize;
+        this.auditLogInserter = auditLogInserter;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(cron = "${app.audit.segment.replay.cron:-}")
+    public void replayAll() {
+        try {
+            for (Path segment : AuditSegment.list(directory, AuditSegment.SEALED)) {
+                replay(segment);
+            }
+        } catch (IOException e) {
+            System.out.println("Audit segment replay failed: " + e.getMessage());
+        }
+    }
+
+    // liczba wczytanych wpisów albo -1, gdy segment nie przeszedł weryfikacji
+    public long replay(Path segment) throws IOException {
+        AuditSegment.Scan check = AuditSegment.scan(segment, null);
+        if (!check.valid()) {
+            System.out.println("Audit segment " + segment.getFileName() + " not replayed: " + check.error());
+            return -1;
+        }
+
+        long[] rejected = {0};
+        transactionTemplate.executeWithoutResult(status -> {
+            List<AuditEntry> batch = new ArrayList<>(batchSize);
+
+            try {
+                AuditSegment.scan(segment, entry -> {
+                    batch.add(entry);
+                    if (batch.size() == batchSize) {
+                        rejected[0] += auditLogInserter.insert(batch);
+                        batch.clear();
+                    }
+                });
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+
+            if (!batch.isEmpty()) {
+                rejected[0] += auditLogInserter.insert(batch);
+            }
+        });
+
+        Path replayed = segment.resolveSibling(segment.getFileName().toString().replace(AuditSegment.SEALED, AuditSegment.REPLAYED));
+        Files.move(segment, replayed, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Audit segment " + segment.getFileName() + " replayed: " + (check.records() - rejected[0]) + " entries, " + rejected[0] + " rejected");
+        return check.records() - rejected[0];
+    }
+}
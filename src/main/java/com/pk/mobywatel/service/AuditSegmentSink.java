@@ -0,0 +1,251 @@
+package com.pk.mobywatel.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+// Zapis audytu do plików segmentów (app.audit.sink=SEGMENT) zamiast do endpoint_log: rekord jest kodowany,
+// dopisywany do zmapowanego w pamięci pliku i łączony hashem z poprzednim (format w AuditSegment).
+// Bez transakcji i bez I/O w wątku requestu - zapis to kopiowanie do page cache i jeden SHA-256.
+// Po osiągnięciu max-bytes albo max-age-minutes wątek requestu tylko podmienia segment na nowo zmapowany;
+// stary (force, przycięcie, .open -> .seg) zamyka maintain() poza monitorem. Hash ostatniego rekordu
+// trafia wtedy do logu aplikacji jako zewnętrzny punkt odniesienia dla AuditSegmentVerifier.
+// Co check-interval-ms zmapowane strony są wymuszane na dysk (force), więc awaria zasilania traci najwyżej tyle danych;
+// po awarii procesu segment .open jest przy starcie przycinany do ostatniego pełnego rekordu i zamykany.
+@Service
+@ConditionalOnProperty(name = "app.audit.sink", havingValue = "SEGMENT")
+public class AuditSegmentSink implements AuditSink {
+    // zakodowany AuditEntry: napisy są obcinane w AuditSegment, więc rekord zawsze się zmieści
+    private static final int RECORD_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final int maxBytes;
+    private final long maxAgeMillis;
+    private final MeterRegistry meterRegistry;
+
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BUFFER_SIZE);
+    private final MessageDigest digest = AuditSegment.sha256();
+
+    private Counter written;
+    private Counter failed;
+
+    // stan bieżącego segmentu, chroniony monitorem obiektu
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private Path segmentPath;
+    private long sequence;
+    private long openedAt;
+    private long records;
+    private byte[] lastHash = AuditSegment.GENESIS;
+
+    // segmenty odłączone przy rotacji, czekające na zamknięcie poza monitorem
+    private record Retired(FileChannel channel, MappedByteBuffer segment, Path path, long sequence, long end, long records, byte[] lastHash) {}
+
+    private final Queue<Retired> retired = new ConcurrentLinkedQueue<>();
+
+    public AuditSegmentSink(@Value("${app.audit.segment.directory:audit-segments}") String directory,
+                            @Value("${app.audit.segment.max-bytes:67108864}") int maxBytes,
+                            @Value("${app.audit.segment.max-age-minutes:60}") long maxAgeMinutes,
+                            MeterRegistry meterRegistry) {
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public synchronized void start() throws IOException {
+        written = Counter.builder("audit.written")
+                .description("Audit log entries appended to segment files")
+                .register(meterRegistry);
+        failed = Counter.builder("audit.write.failures")
+                .description("Audit log entries that could not be appended")
+                .register(meterRegistry);
+
+        Files.createDirectories(directory);
+        recover();
+
+        // łańcuch jest kontynuowany od ostatniego rekordu najnowszego segmentu
+        List<Path> segments = AuditSegment.list(directory);
+        if (!segments.isEmpty()) {
+            AuditSegment.Scan last = AuditSegment.scan(segments.get(segments.size() - 1), null);
+            if (!last.valid()) {
+                System.out.println("Audit segment " + last.file() + " is damaged (" + last.error() + "); chaining from its last valid record");
+            }
+            sequence = last.header() == null ? segments.size() : last.header().sequence() + 1;
+            lastHash = last.lastHash();
+        }
+
+        open();
+    }
+
+    @Override
+    public synchronized void submit(AuditEntry entry) {
+        try {
+            record.clear();
+            record.putInt(0);
+            AuditSegment.encode(entry, record);
+            int length = record.position() - 4;
+            record.putInt(0, length);
+
+            int size = 4 + length + AuditSegment.HASH_LENGTH;
+            if (size > maxBytes - AuditSegment.HEADER_LENGTH) {
+                throw new BufferOverflowException();
+            }
+            if (segment == null || segment.remaining() < size || (records > 0 && expired())) {
+                rotate();
+            }
+
+            byte[] hash = AuditSegment.chain(digest, lastHash, record, 0, 4 + length);
+            int start = segment.position();
+
+            // długość na końcu: dopóki rekord nie jest kompletny, czytelnik widzi w tym miejscu 0 (koniec danych)
+            segment.position(start + 4);
+            segment.put(record.array(), 4, length);
+            segment.put(hash);
+            segment.putInt(start, length);
+
+            lastHash = hash;
+            records++;
+            written.increment();
+        } catch (IOException | BufferOverflowException e) {
+            failed.increment();
+            System.out.println("Audit segment entry could not be written: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.segment.check-interval-ms:1000}")
+    public void maintain() {
+        MappedByteBuffer current = null;
+        int end = 0;
+
+        // pod monitorem tylko decyzja o rotacji; force() (msync, nawet setki ms) bez blokowania submit()
+        synchronized (this) {
+            if (segment != null) {
+                try {
+                    if (records > 0 && expired()) {
+                        rotate();
+                    } else {
+                        current = segment;
+                        end = segment.position();
+                    }
+                } catch (IOException e) {
+                    System.out.println("Audit segment maintenance failed: " + e.getMessage());
+                }
+            }
+        }
+
+        // force z indeksem nie rusza pozycji bufora, a mapowanie zostaje ważne także po zamknięciu segmentu w międzyczasie
+        if (current != null) {
+            current.force(0, end);
+        }
+        sealRetired();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        synchronized (this) {
+            if (segment != null) {
+                retire();
+            }
+        }
+        sealRetired();
+    }
+
+    private boolean expired() {
+        return System.currentTimeMillis() - openedAt >= maxAgeMillis;
+    }
+
+    // pod monitorem: odłączenie bieżącego segmentu i zmapowanie nowego, bez zapisu na dysk
+    private void rotate() throws IOException {
+        if (segment != null) {
+            retire();
+        }
+        open();
+    }
+
+    private void retire() {
+        retired.add(new Retired(channel, segment, segmentPath, sequence, segment.position(), records, lastHash));
+        segment = null;
+        sequence++;
+    }
+
+    private void open() throws IOException {
+        openedAt = System.currentTimeMillis();
+        records = 0;
+        segmentPath = directory.resolve(AuditSegment.fileName(sequence, AuditSegment.OPEN));
+        channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // mapowanie powiększa plik do max-bytes; niezapisana część to zera (plik rzadki)
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxBytes);
+        AuditSegment.writeHeader(segment, sequence, openedAt, lastHash);
+    }
+
+    // poza monitorem (maintain / shutdown); poll() oddaje każdy segment tylko jednemu wątkowi
+    private void sealRetired() {
+        Retired old;
+        while ((old = retired.poll()) != null) {
+            try {
+                seal(old);
+            } catch (IOException e) {
+                // segment zostaje jako .open - przy starcie recover() przytnie go i zamknie
+                System.out.println("Audit segment " + old.path() + " could not be sealed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void seal(Retired old) throws IOException {
+        old.segment().force();
+
+        try {
+            old.channel().truncate(old.end());
+        } catch (IOException e) {
+            // np. system, który nie pozwala przyciąć zmapowanego pliku - zostaje ogon z zer
+            System.out.println("Audit segment " + old.path() + " could not be truncated: " + e.getMessage());
+        }
+        old.channel().close();
+
+        Path sealed = directory.resolve(AuditSegment.fileName(old.sequence(), AuditSegment.SEALED));
+        Files.move(old.path(), sealed, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Audit segment " + sealed.getFileName() + " sealed: " + old.records() + " entries, last hash " + AuditSegment.hex(old.lastHash()));
+    }
+
+    // segment .open pozostawiony przez przerwany proces: przycięcie do ostatniego pełnego rekordu i zamknięcie
+    private void recover() throws IOException {
+        for (Path open : AuditSegment.list(directory, AuditSegment.OPEN)) {
+            AuditSegment.Scan scan = AuditSegment.scan(open, null);
+            if (scan.header() == null) {
+                System.out.println("Audit segment " + open + " has no valid header (" + scan.error() + "), left in place");
+                continue;
+            }
+            if (!scan.valid()) {
+                System.out.println("Audit segment " + open + " recovered up to offset " + scan.end() + " (" + scan.error() + ")");
+            }
+
+            try (FileChannel recovered = FileChannel.open(open, StandardOpenOption.WRITE)) {
+                recovered.truncate(scan.end());
+            }
+            Files.move(open, directory.resolve(AuditSegment.fileName(scan.header().sequence(), AuditSegment.SEALED)), StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.pk.mobywatel.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sprawdza katalog segmentów audytu: łańcuch hashy w każdym segmencie oraz ciągłość między nimi
+// (kolejne numery, hash z nagłówka = ostatni hash poprzedniego segmentu).
+// Bez Springa i bez bazy, do uruchomienia na kopii katalogu, np.:
+//   java -cp app.jar -Dloader.main=com.pk.mobywatel.service.AuditSegmentVerifier org.springframework.boot.loader.launch.PropertiesLauncher audit-segments
+// Wypisuje hash ostatniego rekordu - do porównania z wpisami "sealed ... last hash" z logu aplikacji.
+public final class AuditSegmentVerifier {
+    public record Result(long segments, long records, byte[] lastHash, List<String> problems) {
+        public boolean valid() {
+            return problems.isEmpty();
+        }
+    }
+
+    private AuditSegmentVerifier() {
+    }
+
+    public static Result verify(Path directory) throws IOException {
+        List<String> problems = new ArrayList<>();
+        byte[] previousHash = null;
+        long previousSequence = -1;
+        long records = 0;
+        long segments = 0;
+
+        for (Path file : AuditSegment.list(directory)) {
+            AuditSegment.Scan scan = AuditSegment.scan(file, null);
+            segments++;
+            records += scan.records();
+
+            if (!scan.valid()) {
+                problems.add(file.getFileName() + ": " + scan.error());
+            }
+            if (scan.header() == null) {
+                previousHash = null;
+                continue;
+            }
+
+            // pierwszy segment w katalogu (starsze mogły zostać zarchiwizowane) wyznacza punkt startu
+            if (previousHash != null) {
+                if (scan.header().sequence() != previousSequence + 1) {
+                    problems.add(file.getFileName() + ": expected segment " + (previousSequence + 1) + ", found " + scan.header().sequence());
+                }
+                if (!MessageDigest.isEqual(scan.header().previousHash(), previousHash)) {
+                    problems.add(file.getFileName() + ": does not continue the chain of the previous segment");
+                }
+            }
+
+            previousHash = scan.lastHash();
+            previousSequence = scan.header().sequence();
+        }
+
+        return new Result(segments, records, previousHash == null ? AuditSegment.GENESIS : previousHash, problems);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "audit-segments");
+        Result result = verify(directory);
+
+        result.problems().forEach(problem -> System.out.println("TAMPERED " + problem));
+        System.out.println(result.segments() + " segments, " + result.records() + " entries, last hash " + AuditSegment.hex(result.lastHash()));
+        System.exit(result.valid() ? 0 : 1);
+    }
+}
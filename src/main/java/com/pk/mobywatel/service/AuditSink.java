@@ -0,0 +1,9 @@
+package com.pk.mobywatel.service;
+
+// Miejsce zapisu wpisów audytu z LoggingAspect, wybierane przez app.audit.sink:
+//  DATABASE - AuditLogWriter, porcjami do endpoint_log (domyślnie),
+//  SEGMENT  - AuditSegmentSink, do plików segmentów z łańcuchem hashy; do bazy wczytuje je AuditSegmentReplayer.
+// submit jest wołany w wątku requestu, więc nie może czekać na bazę.
+public interface AuditSink {
+    void submit(AuditEntry entry);
+}
@@ -1,13 +1,18 @@
 package com.pk.mobywatel.service;
 
+import com.pk.mobywatel.config.CachedUser;
+import com.pk.mobywatel.config.TokenPrincipal;
 import com.pk.mobywatel.request.LoginBody;
 import com.pk.mobywatel.model.UserModel;
 import com.pk.mobywatel.repository.UserRepository;
 import com.pk.mobywatel.response.AuthenticationResponse;
+import com.pk.mobywatel.util.FormatValidator;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -20,6 +25,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -28,7 +34,12 @@ public class AuthService {
     private final UserRepository userRepository;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final TokenVersionService tokenVersionService;
+    private final UserDetailsCache userDetailsCache;
 
+    // ten sam przełącznik co w JwtAuthenticationFilter - wyłączony wymusza odczyt użytkownika także w authorize()
+    @Value("${jwt.claims-principal.enabled:true}")
+    private boolean claimsPrincipalEnabled;
 
 
     public AuthenticationResponse login(LoginBody request, HttpServletResponse response) throws BadRequestException {
@@ -43,9 +54,7 @@ public class AuthService {
             throw new BadRequestException("A field is blank.");
         }
 
-        String emailRegex = "^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$";
-
-        if (!email.matches(emailRegex)) {
+        if (!FormatValidator.email(email).isValid()) {
             throw new BadRequestException("Incorrect email.");
         }
 
@@ -84,15 +93,46 @@ public class AuthService {
             throw new BadRequestException("Empty token.");
         }
 
-        String email = jwtService.extractUsername(token);
-        UserModel user = userRepository.findByEmail(email).orElseThrow(()-> new UsernameNotFoundException("Email not found"));
+        VerifiedToken verified = jwtService.verify(token);
+        CachedUser user = userDetailsCache.find(verified.subject()).orElseThrow(()-> new UsernameNotFoundException("Email not found"));
 
-        boolean isValid = jwtService.isTokenValid(token, user);
+        boolean isValid = jwtService.isTokenValid(verified, user)
+                && (!verified.carriesPrincipal() || tokenVersionService.isCurrent(verified));
         if (!isValid) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
         }
     }
 
+    // Szybka ścieżka dla nginx auth_request: jeden parse tokenu, principal z claimów (albo z UserDetailsCache
+    // dla tokenów bez claimów i przy jwt.claims-principal.enabled=false), bez wyjątków - nieważny token to pusty wynik
+    public Optional<TokenPrincipal> authorize(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        VerifiedToken verified;
+
+        try {
+            verified = jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        if (verified.isExpired()) {
+            return Optional.empty();
+        }
+
+        if (claimsPrincipalEnabled && verified.carriesPrincipal()) {
+            return tokenVersionService.isCurrent(verified)
+                    ? Optional.of(new TokenPrincipal(verified.userID(), verified.subject(), verified.role()))
+                    : Optional.empty();
+        }
+
+        return userDetailsCache.find(verified.subject())
+                .filter(user -> jwtService.isTokenValid(verified, user))
+                .map(user -> new TokenPrincipal(user.userID(), user.email(), user.role()));
+    }
+
     public String[] getRoles() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -0,0 +1,90 @@
+package com.pk.mobywatel.service;
+
+import com.pk.mobywatel.model.Citizen;
+import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.repository.CitizenRepository;
+import com.pk.mobywatel.repository.UserRepository;
+import com.pk.mobywatel.util.BlindIndexUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Jednorazowe uzupełnienie email_hash / pesel_hash dla wierszy sprzed wprowadzenia blind indeksów.
+// Idzie porcjami po kluczu (ID > ostatnie), każda porcja w osobnej transakcji, więc nie trzyma całej tabeli w pamięci.
+// Zapis wiersza szyfruje też kolumny ponownie w bieżącym trybie (app.encryption.mode), np. przejście ECB -> GCM.
+@Service
+@RequiredArgsConstructor
+public class BlindIndexBackfill {
+
+    private final UserRepository userRepository;
+    private final CitizenRepository citizenRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.blind-index.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.blind-index.backfill.chunk-size:500}")
+    private int chunkSize;
+
+    private record Chunk(int size, Integer lastID) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+
+        int users = backfillUsers();
+        int citizens = backfillCitizens();
+
+        if (users > 0 || citizens > 0) {
+            System.out.println("Blind index backfill finished: " + users + " users, " + citizens + " citizens");
+        }
+    }
+
+    public int backfillUsers() {
+        int total = 0;
+        Integer lastID = 0;
+
+        while (true) {
+            final Integer after = lastID;
+            Chunk chunk = transactionTemplate.execute(status -> {
+                List<UserModel> users = userRepository.findByEmailHashIsNullAndUserIDGreaterThanOrderByUserIDAsc(after, Limit.of(chunkSize));
+                users.forEach(user -> user.setEmailHash(BlindIndexUtil.hash(user.getEmail())));
+                return new Chunk(users.size(), users.isEmpty() ? after : users.get(users.size() - 1).getUserID());
+            });
+
+            total += chunk.size();
+            if (chunk.size() < chunkSize) {
+                return total;
+            }
+            lastID = chunk.lastID();
+        }
+    }
+
+    public int backfillCitizens() {
+        int total = 0;
+        Integer lastID = 0;
+
+        while (true) {
+            final Integer after = lastID;
+            Chunk chunk = transactionTemplate.execute(status -> {
+                List<Citizen> citizens = citizenRepository.findByPeselHashIsNullAndCitizenIDGreaterThanOrderByCitizenIDAsc(after, Limit.of(chunkSize));
+                citizens.forEach(citizen -> citizen.setPeselHash(BlindIndexUtil.hash(citizen.getPESEL())));
+                return new Chunk(citizens.size(), citizens.isEmpty() ? after : citizens.get(citizens.size() - 1).getCitizenID());
+            });
+
+            total += chunk.size();
+            if (chunk.size() < chunkSize) {
+                return total;
+            }
+            lastID = chunk.lastID();
+        }
+    }
+}
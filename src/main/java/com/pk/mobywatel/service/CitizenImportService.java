@@ -0,0 +1,428 @@
+package com.pk.mobywatel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pk.mobywatel.model.Citizen;
+import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.repository.CitizenRepository;
+import com.pk.mobywatel.repository.UserRepository;
+import com.pk.mobywatel.request.RegisterBody;
+import com.pk.mobywatel.response.CitizenImportError;
+import com.pk.mobywatel.response.CitizenImportReport;
+import com.pk.mobywatel.util.BlindIndexUtil;
+import com.pk.mobywatel.util.Gender;
+import com.pk.mobywatel.util.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Zbiorczy import obywateli z CSV (z nagłówkiem) albo NDJSON, czytany strumieniowo z treści requestu.
+//  - wątek requestu czyta linie i składa porcje (chunk-size, maks. 1000 - limit listy IN w Oracle),
+//  - parsowanie, walidacja PESEL / daty urodzenia / płci i ewentualne BCrypt idą równolegle na puli validation-threads,
+//    w locie jest najwyżej max-in-flight-chunks porcji, więc pamięć nie zależy od rozmiaru pliku,
+//  - zapis idzie po kolei w wątku requestu: duplikaty w porcji, jedno zapytanie o zajęte emaile i jedno o PESEL-e,
+//    potem batch insert (sekwencje + hibernate.jdbc.batch_size) w osobnej transakcji na porcję.
+// Zapisane porcje zostają w bazie także przy błędach w dalszej części pliku - raport podaje odrzucone linie.
+@Service
+@RequiredArgsConstructor
+public class CitizenImportService {
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromContentType(String contentType) throws BadRequestException {
+            if (contentType != null) {
+                String type = contentType.toLowerCase(Locale.ROOT);
+                if (type.startsWith("text/csv")) {
+                    return CSV;
+                }
+                if (type.startsWith("application/x-ndjson")) {
+                    return NDJSON;
+                }
+            }
+            throw new BadRequestException("Unsupported import format");
+        }
+    }
+
+    // hasło, które nie jest poprawnym hashem BCrypt - konto z importu bez hasła nie pozwala się zalogować
+    private static final String NO_PASSWORD = "!";
+    private static final int MAX_CHUNK_SIZE = 1000;
+    private static final List<String> CSV_COLUMNS = List.of("email", "password", "firstName", "lastName", "birthDate", "PESEL", "gender");
+
+    private final DataValidator validator;
+    // bez ograniczonej puli logowania - import ma własną pulę walidacji
+    private final DelegatingPasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final CitizenRepository citizenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.validation-threads:0}")
+    private int validationThreads;
+
+    @Value("${app.import.max-in-flight-chunks:4}")
+    private int maxInFlightChunks;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private ExecutorService executor;
+
+    private record RawLine(long line, String text) {}
+
+    private record ValidRow(long line, RegisterBody body, String passwordHash, String emailHash, String peselHash) {}
+
+    private record ValidatedChunk(List<ValidRow> rows, List<CitizenImportError> errors) {}
+
+    @FunctionalInterface
+    private interface LineParser {
+        RegisterBody parse(String text) throws IOException;
+    }
+
+    // zliczanie wyników i ograniczona lista błędów dla raportu
+    private final class Report {
+        private long imported;
+        private long rejected;
+        private final List<CitizenImportError> errors = new ArrayList<>();
+
+        void reject(CitizenImportError error) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+
+        CitizenImportReport build() {
+            errors.sort(Comparator.comparingLong(CitizenImportError::line));
+            return new CitizenImportReport(imported, rejected, errors, rejected > errors.size());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        chunkSize = Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+        maxInFlightChunks = Math.max(1, maxInFlightChunks);
+
+        int threads = validationThreads > 0 ? validationThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> Thread.ofPlatform()
+                .name("citizen-import-" + counter.incrementAndGet())
+                .daemon(true)
+                .unstarted(runnable));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public CitizenImportReport importCitizens(InputStream input, Format format) throws BadRequestException {
+        Report report = new Report();
+        Deque<Future<ValidatedChunk>> inFlight = new ArrayDeque<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            LineParser parser;
+
+            if (format == Format.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                if (header == null) {
+                    throw new BadRequestException("Missing CSV header");
+                }
+                parser = csvParser(header);
+            } else {
+                parser = text -> objectMapper.readValue(text, RegisterBody.class);
+            }
+
+            List<RawLine> chunk = new ArrayList<>(chunkSize);
+            String text;
+
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+
+                chunk.add(new RawLine(lineNumber, text));
+                if (chunk.size() == chunkSize) {
+                    inFlight.add(submit(chunk, parser));
+                    chunk = new ArrayList<>(chunkSize);
+
+                    if (inFlight.size() >= maxInFlightChunks) {
+                        write(await(inFlight.poll()), report);
+                    }
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                inFlight.add(submit(chunk, parser));
+            }
+
+            while (!inFlight.isEmpty()) {
+                write(await(inFlight.poll()), report);
+            }
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read import data", e);
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+
+        return report.build();
+    }
+
+    private Future<ValidatedChunk> submit(List<RawLine> lines, LineParser parser) {
+        return executor.submit(() -> {
+            List<ValidRow> rows = new ArrayList<>(lines.size());
+            List<CitizenImportError> errors = new ArrayList<>();
+
+            for (RawLine line : lines) {
+                try {
+                    RegisterBody body = parser.parse(line.text());
+                    validator.validateImportedCitizen(body);
+
+                    rows.add(new ValidRow(
+                            line.line(),
+                            body,
+                            body.password() == null ? NO_PASSWORD : passwordEncoder.encode(body.password()),
+                            BlindIndexUtil.hash(body.email()),
+                            BlindIndexUtil.hash(body.PESEL())
+                    ));
+                } catch (BadRequestException e) {
+                    errors.add(new CitizenImportError(line.line(), e.getMessage()));
+                } catch (IOException | RuntimeException e) {
+                    // np. niepoprawny JSON w linii NDJSON
+                    errors.add(new CitizenImportError(line.line(), "Malformed line"));
+                }
+            }
+
+            return new ValidatedChunk(rows, errors);
+        });
+    }
+
+    private ValidatedChunk await(Future<ValidatedChunk> future) throws BadRequestException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BadRequestException("Import interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void write(ValidatedChunk chunk, Report report) {
+        chunk.errors().forEach(report::reject);
+
+        // duplikaty w obrębie porcji; wcześniejsze porcje są już zapisane, więc wykryje je zapytanie do bazy
+        Set<String> emails = new HashSet<>();
+        Set<String> pesels = new HashSet<>();
+        List<ValidRow> unique = new ArrayList<>(chunk.rows().size());
+
+        for (ValidRow row : chunk.rows()) {
+            if (!emails.add(row.emailHash())) {
+                report.reject(new CitizenImportError(row.line(), "Email is duplicated in the import."));
+            } else if (!pesels.add(row.peselHash())) {
+                report.reject(new CitizenImportError(row.line(), "PESEL is duplicated in the import."));
+            } else {
+                unique.add(row);
+            }
+        }
+
+        if (unique.isEmpty()) {
+            return;
+        }
+
+        Set<String> takenEmails = userRepository.findExistingEmailHashes(emails);
+        Set<String> takenPesels = citizenRepository.findExistingPeselHashes(pesels);
+        List<ValidRow> rows = new ArrayList<>(unique.size());
+
+        for (ValidRow row : unique) {
+            if (takenEmails.contains(row.emailHash())) {
+                report.reject(new CitizenImportError(row.line(), "Email is taken."));
+            } else if (takenPesels.contains(row.peselHash())) {
+                report.reject(new CitizenImportError(row.line(), "PESEL is taken."));
+            } else {
+                rows.add(row);
+            }
+        }
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(rows);
+            report.imported += rows.size();
+        } catch (DataIntegrityViolationException e) {
+            // równoległa rejestracja zajęła email / PESEL między sprawdzeniem a zapisem - porcja wiersz po wierszu
+            for (ValidRow row : rows) {
+                try {
+                    insert(List.of(row));
+                    report.imported++;
+                } catch (DataIntegrityViolationException rowException) {
+                    report.reject(new CitizenImportError(row.line(), "Email or PESEL is taken."));
+                }
+            }
+        }
+    }
+
+    // encje budowane przy każdej próbie od nowa - po rollbacku nie mają przypisanych ID
+    private void insert(List<ValidRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Citizen> citizens = new ArrayList<>(rows.size());
+            for (ValidRow row : rows) {
+                citizens.add(toCitizen(row));
+            }
+
+            // flush przez proxy repozytorium: naruszenie unikalnego indeksu wraca jako DataIntegrityViolationException
+            // (flush na EntityManagerze w @Service rzuciłby nieprzetłumaczony wyjątek Hibernate)
+            citizenRepository.saveAllAndFlush(citizens);
+            entityManager.clear();
+        });
+    }
+
+    private static Citizen toCitizen(ValidRow row) {
+        RegisterBody body = row.body();
+
+        UserModel user = UserModel.builder()
+                .email(body.email())
+                .password(row.passwordHash())
+                .role(Role.CITIZEN)
+                .build();
+
+        return Citizen.builder()
+                .user(user)
+                .firstName(body.firstName())
+                .lastName(body.lastName())
+                .PESEL(body.PESEL())
+                .birthDate(body.birthDate())
+                .gender(body.gender())
+                .build();
+    }
+
+    // nagłówek wyznacza kolejność kolumn; wymagane wszystkie poza password
+    private static LineParser csvParser(String header) throws BadRequestException {
+        List<String> names = splitCsv(header);
+        Map<String, Integer> index = new HashMap<>();
+
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            for (String column : CSV_COLUMNS) {
+                if (column.equalsIgnoreCase(name)) {
+                    index.put(column, i);
+                }
+            }
+        }
+
+        for (String column : CSV_COLUMNS) {
+            if (!column.equals("password") && !index.containsKey(column)) {
+                throw new BadRequestException("Missing CSV column: " + column);
+            }
+        }
+
+        return text -> {
+            List<String> fields = splitCsv(text);
+            if (fields.size() != names.size()) {
+                throw new BadRequestException("Expected " + names.size() + " fields, got " + fields.size());
+            }
+
+            return new RegisterBody(
+                    field(fields, index, "email"),
+                    field(fields, index, "password"),
+                    field(fields, index, "firstName"),
+                    field(fields, index, "lastName"),
+                    parseDate(field(fields, index, "birthDate")),
+                    field(fields, index, "PESEL"),
+                    parseGender(field(fields, index, "gender"))
+            );
+        };
+    }
+
+    // puste pole = brak wartości (walidacja zgłosi "A field is null.")
+    private static String field(List<String> fields, Map<String, Integer> index, String column) {
+        Integer position = index.get(column);
+        if (position == null) {
+            return null;
+        }
+
+        String value = fields.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static LocalDate parseDate(String value) throws BadRequestException {
+        try {
+            return value == null ? null : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid birth date.");
+        }
+    }
+
+    private static Gender parseGender(String value) throws BadRequestException {
+        try {
+            return value == null ? null : Gender.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid gender.");
+        }
+    }
+
+    // pola rozdzielone przecinkami, opcjonalnie w cudzysłowach ("" = cudzysłów w polu)
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
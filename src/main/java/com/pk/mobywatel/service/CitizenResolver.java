@@ -0,0 +1,62 @@
+package com.pk.mobywatel.service;
+
+import com.pk.mobywatel.repository.CitizenRepository;
+import com.pk.mobywatel.response.CitizenDto;
+import com.pk.mobywatel.util.BlindIndexUtil;
+import lombok.RequiredArgsConstructor;
+import org.apache.coyote.BadRequestException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+// Ustala obywatela zalogowanego użytkownika jednym zapytaniem po citizen.user_id (claim uid z tokenu),
+// a dla starszych tokenów bez uid - jednym JOIN-em po blind indeksie emaila, bez wczytywania UserModel.
+// Wynik jest zapamiętywany w requeście, tak jak zweryfikowany token w JwtService.
+@Service
+@RequiredArgsConstructor
+public class CitizenResolver {
+    private static final String CITIZEN_ID_ATTRIBUTE = CitizenResolver.class.getName() + ".CITIZEN_ID";
+
+    private final CitizenRepository citizenRepository;
+    private final JwtService jwtService;
+
+    private record ResolvedCitizen(String token, Integer citizenID) {}
+
+    public Integer resolveCitizenID(String token) throws BadRequestException {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes != null
+                && attributes.getAttribute(CITIZEN_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof ResolvedCitizen cached
+                && cached.token().equals(token)) {
+            return cached.citizenID();
+        }
+
+        VerifiedToken verified = jwtService.verify(token);
+        Optional<Integer> citizenID = verified.userID() != null
+                ? citizenRepository.findCitizenIDByUserID(verified.userID())
+                : citizenRepository.findCitizenIDByEmailHash(BlindIndexUtil.hash(verified.subject()));
+
+        return remember(attributes, token, citizenID.orElseThrow(() -> new BadRequestException("Citizen not found")));
+    }
+
+    // dane osobowe razem z emailem w jednym zapytaniu; przy okazji zapamiętuje citizenID
+    public CitizenDto resolvePersonalData(String token) throws BadRequestException {
+        VerifiedToken verified = jwtService.verify(token);
+        Optional<CitizenDto> citizen = verified.userID() != null
+                ? citizenRepository.findCitizenDtoByUserID(verified.userID())
+                : citizenRepository.findCitizenDtoByEmailHash(BlindIndexUtil.hash(verified.subject()));
+
+        CitizenDto dto = citizen.orElseThrow(() -> new BadRequestException("Citizen not found"));
+        remember(RequestContextHolder.getRequestAttributes(), token, dto.citizenID());
+        return dto;
+    }
+
+    private static Integer remember(RequestAttributes attributes, String token, Integer citizenID) {
+        if (attributes != null) {
+            attributes.setAttribute(CITIZEN_ID_ATTRIBUTE, new ResolvedCitizen(token, citizenID), RequestAttributes.SCOPE_REQUEST);
+        }
+        return citizenID;
+    }
+}
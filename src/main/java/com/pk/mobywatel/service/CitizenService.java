@@ -10,6 +10,7 @@ import com.pk.mobywatel.response.CitizenDto;
 import com.pk.mobywatel.response.DocumentDto;
 import com.pk.mobywatel.response.DriverLicenseDto;
 import com.pk.mobywatel.response.IdentityCardDto;
+import com.pk.mobywatel.util.LicenseCategory;
 import com.pk.mobywatel.util.RequestedDocument;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
@@ -30,38 +31,17 @@ public class CitizenService {
     private final PersonalDataUpdateRequestRepository personalDataUpdateRequestRepository;
     private final DataValidator validator;
     private final DocumentIssueRequestRepository documentIssueRequestRepository;
-    private final UserRepository userRepository;
-    private final JwtService jwtService;
+    private final CitizenResolver citizenResolver;
     private final FilesystemService filesystemService;
 
     public CitizenDto getCitizenPersonalData(String token) throws BadRequestException {
-        UserModel citizenUserModel = userRepository.findByEmail(jwtService.extractUsername(token))
-                .orElseThrow(() -> new BadRequestException("User not found"));
-
-        var citizen = citizenRepository.findByUser(citizenUserModel).orElseThrow(
-                () -> new BadRequestException("Citizen not found")
-        );
-
-        return new CitizenDto(
-                citizen.getCitizenID(),
-                citizen.getFirstName(),
-                citizen.getLastName(),
-                citizen.getBirthDate(),
-                citizen.getPESEL(),
-                citizen.getGender(),
-                citizenUserModel.getEmail()
-        );
+        return citizenResolver.resolvePersonalData(token);
     }
 
     public List<DocumentDto> getCitizenDocuments(String token) throws BadRequestException {
-        UserModel citizenUserModel = userRepository.findByEmail(jwtService.extractUsername(token))
-                .orElseThrow(() -> new BadRequestException("User not found"));
-
-        var citizen = citizenRepository.findByUser(citizenUserModel).orElseThrow(
-                () -> new BadRequestException("Citizen not found")
-        );
+        Integer citizenID = citizenResolver.resolveCitizenID(token);
 
-        return citizen.getDocuments().stream().map(this::mapToDto).toList();
+        return documentRepository.findDashboardDocuments(citizenID).stream().map(this::mapToDto).toList();
     }
 
     public void reportLostDocument(Integer documentID, String token) throws BadRequestException {
@@ -69,13 +49,9 @@ public class CitizenService {
                 () -> new BadRequestException("Document not found")
         );
 
-        UserModel citizenUserModel = userRepository.findByEmail(jwtService.extractUsername(token))
-                .orElseThrow(() -> new BadRequestException("User not found"));
+        Integer citizenID = citizenResolver.resolveCitizenID(token);
 
-        Citizen citizen = citizenRepository.findByUser(citizenUserModel)
-                .orElseThrow(() -> new BadRequestException("Citizen not found"));
-
-        if(!document.getCitizen().getCitizenID().equals(citizen.getCitizenID())) {
+        if(!document.getCitizen().getCitizenID().equals(citizenID)) {
             throw new BadRequestException("Document does not belong to citizen");
         }
 
@@ -84,11 +60,8 @@ public class CitizenService {
     }
 
     public void requestUpdatePersonalData(PersonalDataUpdateBody body, String token) throws BadRequestException {
-        UserModel citizenUserModel = userRepository.findByEmail(jwtService.extractUsername(token))
-                .orElseThrow(() -> new BadRequestException("User not found"));
-
-        Citizen citizen = citizenRepository.findByUser(citizenUserModel)
-                .orElseThrow(() -> new BadRequestException("Citizen not found"));
+        // referencja bez SELECT - do zapisu wniosku potrzebny jest tylko klucz obcy
+        Citizen citizen = citizenRepository.getReferenceById(citizenResolver.resolveCitizenID(token));
 
         PersonalDataUpdateRequest request = PersonalDataUpdateRequest.builder()
                 .citizen(citizen)
@@ -106,11 +79,7 @@ public class CitizenService {
     public void requestDocumentIssue(DocumentIssueBody body, MultipartFile photo, String token) throws BadRequestException {
         validator.validateCitizenDocumentIssueData(body);
 
-        UserModel citizenUserModel = userRepository.findByEmail(jwtService.extractUsername(token))
-                .orElseThrow(() -> new BadRequestException("User not found"));
-
-        Citizen citizen = citizenRepository.findByUser(citizenUserModel)
-                .orElseThrow(() -> new BadRequestException("Citizen not found"));
+        Citizen citizen = citizenRepository.getReferenceById(citizenResolver.resolveCitizenID(token));
 
         if (body.requestedDocument() == RequestedDocument.IDENTITY_CARD) {
             IdentityCardIssueRequest request = IdentityCardIssueRequest.builder()
@@ -122,18 +91,20 @@ public class CitizenService {
 
             documentIssueRequestRepository.save(request);
 
-            filesystemService.storeRequest(request.getCitizen().getCitizenID(), request.getRequestID(), photo);
+            request.setPhoto(filesystemService.storeRequest(request.getCitizen().getCitizenID(), request.getRequestID(), photo));
+            documentIssueRequestRepository.save(request);
         } else {
             DriverLicenseIssueRequest request = DriverLicenseIssueRequest.builder()
                     .citizen(citizen)
-                    .categories(body.licenseCategory())
+                    .categories(LicenseCategory.setOf(body.licenseCategory()))
                     .processed(false)
                     .approved(false)
                     .build();
 
             documentIssueRequestRepository.save(request);
 
-            filesystemService.storeRequest(request.getCitizen().getCitizenID(), request.getRequestID(), photo);
+            request.setPhoto(filesystemService.storeRequest(request.getCitizen().getCitizenID(), request.getRequestID(), photo));
+            documentIssueRequestRepository.save(request);
         }
     }
 
@@ -144,7 +115,8 @@ public class CitizenService {
             dto.setIssueDate(dl.getIssueDate());
             dto.setExpirationDate(dl.getExpirationDate());
             dto.setLost(dl.getLost());
-            dto.setCategories(dl.getCategories().stream().sorted().toList());
+            // EnumSet iteruje w kolejności deklaracji, więc lista jest już posortowana
+            dto.setCategories(List.copyOf(dl.getCategories()));
             dto.setType("DRIVER_LICENSE");
             return dto;
         } else if (document instanceof IdentityCard ic) {
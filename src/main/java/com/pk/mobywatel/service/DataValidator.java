@@ -7,6 +7,7 @@ import com.pk.mobywatel.model.Citizen;
 import com.pk.mobywatel.model.UserModel;
 import com.pk.mobywatel.repository.CitizenRepository;
 import com.pk.mobywatel.repository.UserRepository;
+import com.pk.mobywatel.util.FormatValidator;
 import com.pk.mobywatel.util.Gender;
 import com.pk.mobywatel.util.RequestedDocument;
 import lombok.RequiredArgsConstructor;
@@ -48,20 +49,49 @@ public class DataValidator {
     }
 
     public void validateCitizenRegisterData(RegisterBody body) throws BadRequestException {
-        String email = body.email(),
-                password = body.password(),
-                firstName = body.firstName(),
-                lastName = body.lastName(),
-                PESEL = body.PESEL();
-        LocalDate birthDate = body.birthDate();
-        Gender gender = body.gender();
-
         try{
-            validateUserRegisterData(email, password);
+            validateUserRegisterData(body.email(), body.password());
         }catch (BadRequestException e) {
             throw new BadRequestException(e.getMessage());
         }
 
+        validateCitizenFields(body);
+
+        if(checkIfPESELIsTaken(body.PESEL())) {
+            throw new BadRequestException("PESEL is taken.");
+        }
+    }
+
+    // walidacja wiersza importu bez zapytań do bazy - zajętość emaili i PESEL-i sprawdza import zbiorczo;
+    // hasło jest opcjonalne (konto bez hasła nie pozwala się zalogować)
+    public void validateImportedCitizen(RegisterBody body) throws BadRequestException {
+        if (body.email() == null) {
+            throw new BadRequestException("A field is null.");
+        }
+
+        if (body.email().isBlank()) {
+            throw new BadRequestException("A field is blank.");
+        }
+
+        if (!checkEmailRegex(body.email())) {
+            throw new BadRequestException("Incorrect email.");
+        }
+
+        if (body.password() != null && !checkPasswordRegex(body.password())) {
+            throw new BadRequestException("Incorrect password.");
+        }
+
+        validateCitizenFields(body);
+    }
+
+    // część walidacji obywatela niezależna od bazy (wspólna dla rejestracji i importu)
+    public void validateCitizenFields(RegisterBody body) throws BadRequestException {
+        String firstName = body.firstName(),
+                lastName = body.lastName(),
+                PESEL = body.PESEL();
+        LocalDate birthDate = body.birthDate();
+        Gender gender = body.gender();
+
         if (firstName == null || lastName == null || PESEL == null || birthDate == null || gender == null) {
             throw new BadRequestException("A field is null.");
         }
@@ -74,14 +104,11 @@ public class DataValidator {
         if(gender==Gender.MALE) peselGender = GenderEnum.MALE;
         else peselGender = GenderEnum.FEMALE;
 
-        if (!peselValidator.validate(PESEL, birthDate, peselGender)) {
+        // format i cyfra kontrolna bez biblioteki; zgodność z datą urodzenia i płcią sprawdza PeselValidator
+        if (!FormatValidator.peselFormat(PESEL).isValid() || !peselValidator.validate(PESEL, birthDate, peselGender)) {
             throw new BadRequestException("Invalid pesel.");
         }
 
-        if(checkIfPESELIsTaken(PESEL)) {
-            throw new BadRequestException("PESEL is taken.");
-        }
-
         if (birthDate.isAfter(LocalDate.now())) {
             throw new BadRequestException("Birth date is after current date.");
         }
@@ -127,25 +154,14 @@ public class DataValidator {
         return citizen != null;
     }
 
+    // jednoprzebiegowe skanery zamiast String.matches - szczegółowy powód w FormatValidator.email / password
     public boolean checkEmailRegex(String email){
-        String emailRegex = "^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$";
-
-        if (!email.matches(emailRegex)) {
-            return false;
-        }
-
-        return true;
+        return FormatValidator.email(email).isValid();
     }
 
     public boolean checkPasswordRegex(String password){
         // min 8 chars, 1 uppercase, 1 lowercase, 1 digit, 1 special char
-        String passwordRegex = "^(?=.*[A-Z])(?=.*[a-z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,40}$";
-
-        if (!password.matches(passwordRegex)) {
-            return false;
-        }
-
-        return true;
+        return FormatValidator.password(password).isValid();
     }
 
     public boolean validateUpdateField(Object field) throws BadRequestException {
@@ -157,10 +173,11 @@ public class DataValidator {
     }
 
     public void validatePESEL(String PESEL) throws BadRequestException {
-        if (PESEL == null || PESEL.isEmpty()) {
-            throw new BadRequestException("A field is null.");
-        } else if (PESEL.length() != 11) {
-            throw new BadRequestException("Pesel must be 11 characters.");
+        switch (FormatValidator.peselFormat(PESEL)) {
+            case VALID -> { }
+            case MISSING -> throw new BadRequestException("A field is null.");
+            case PESEL_LENGTH -> throw new BadRequestException(PESEL.isEmpty() ? "A field is null." : "Pesel must be 11 characters.");
+            default -> throw new BadRequestException("Invalid pesel.");
         }
     }
 }
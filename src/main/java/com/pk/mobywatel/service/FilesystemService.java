@@ -1,19 +1,28 @@
 package com.pk.mobywatel.service;
 
+import com.pk.mobywatel.model.StoredFile;
 import com.pk.mobywatel.util.FilestorageyUtil;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +35,11 @@ public class FilesystemService {
         Files.createDirectories(requestRoot);
     }
 
-    public void storeRequest(Integer citizenID, Integer requestID, MultipartFile file) throws BadRequestException {
+    public Path root(FilestorageyUtil type) {
+        return type == FilestorageyUtil.DOCUMENT ? docRoot : requestRoot;
+    }
+
+    public StoredFile storeRequest(Integer citizenID, Integer requestID, MultipartFile file) throws BadRequestException {
         if (file.isEmpty() || !file.getContentType().startsWith("image")) {
             throw new BadRequestException("Incorrect file");
         }
@@ -42,76 +55,135 @@ public class FilesystemService {
 
         Path destinationFile = filePath.normalize().toAbsolutePath();
 
-        try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+        // hash liczony w locie podczas kopiowania, bez ponownego czytania pliku
+        MessageDigest digest = sha256();
+
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            long size = Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+            return describe(citizenID, requestID + extension, size, HexFormat.of().formatHex(digest.digest()));
         } catch (IOException e) {
             throw new BadRequestException("Failed to store file ", e);
         }
     }
 
-    public void moveRequestToDocs(Integer citizenID, Integer requestID, Integer docID) throws BadRequestException {
-        try {
-            Path rootPath = Paths.get(requestRoot.toString(), citizenID.toString());
-            Path filePath = null;
-
-            for (Path document : Files.list(rootPath).toList()) {
-                if (document.getFileName().toString().startsWith(requestID.toString())) {
-                    filePath = document;
-                }
-            }
-
-            if (filePath == null) {
-                throw new BadRequestException("File does not exist");
-            }
+    // requestPhoto == null oznacza wniosek sprzed zapisywania metadanych - wtedy plik jest szukany w katalogu obywatela
+    public StoredFile moveRequestToDocs(StoredFile requestPhoto, Integer citizenID, Integer requestID, Integer docID) throws BadRequestException {
+        StoredFile source = requestPhoto != null ? requestPhoto
+                : findByID(citizenID, requestID, FilestorageyUtil.REQUEST)
+                        .orElseThrow(() -> new BadRequestException("File does not exist"));
 
-            Resource resource = new UrlResource(filePath.toUri());
+        Path filePath = requestRoot.resolve(source.getPath());
 
-            if (!resource.exists() || !resource.isReadable())
-                throw new BadRequestException("File does not exist");
+        if (!Files.isReadable(filePath))
+            throw new BadRequestException("File does not exist");
 
-            String extension = filePath.toString().substring(filePath.toString().lastIndexOf("."));
-            Path destinationFile = Paths.get(docRoot.toString(), citizenID.toString(), docID.toString() + extension);
+        String fileName = docID + source.getExtension();
+        Path destinationFile = Paths.get(docRoot.toString(), citizenID.toString(), fileName);
 
-            try {
-                Files.createDirectories(destinationFile.getParent());
-            } catch (IOException e) {
-                throw new BadRequestException();
-            }
+        try {
+            Files.createDirectories(destinationFile.getParent());
+        } catch (IOException e) {
+            throw new BadRequestException();
+        }
 
-            destinationFile = destinationFile.normalize().toAbsolutePath();
+        destinationFile = destinationFile.normalize().toAbsolutePath();
 
+        try {
             Files.move(filePath, destinationFile, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
             throw new RuntimeException();
         }
+
+        return describe(citizenID, fileName, source.getSize(), source.getHash() != null ? source.getHash() : hash(destinationFile));
     }
 
-    public Resource loadDoc(Integer citizenID, Integer requestID, FilestorageyUtil type) throws BadRequestException {
+    // jeden stat zamiast listowania katalogu obywatela; atrybuty dają też rozmiar i Last-Modified
+    public PhotoFile loadDoc(StoredFile photo, FilestorageyUtil type) throws BadRequestException {
+        if (photo == null || photo.getPath() == null) {
+            throw new BadRequestException("File does not exist");
+        }
+
+        Path filePath = root(type).resolve(photo.getPath());
+
+        BasicFileAttributes attributes;
+
         try {
-            Path other;
+            attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new BadRequestException("File does not exist");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        if (!attributes.isRegularFile())
+            throw new BadRequestException("File does not exist");
+
+        return new PhotoFile(filePath, photo, attributes);
+    }
 
-            if (type == FilestorageyUtil.DOCUMENT)
-                other = Paths.get(docRoot.toString(), citizenID.toString());
-            else
-                other = Paths.get(requestRoot.toString(), citizenID.toString());
+    // dokładne dopasowanie nazwy "<ID>.<rozszerzenie>" (np. wniosek 1 nie trafia w 12.jpg); tylko dla danych sprzed metadanych
+    public Optional<StoredFile> findByID(Integer citizenID, Integer id, FilestorageyUtil type) {
+        Path directory = root(type).resolve(citizenID.toString());
+        String prefix = id + ".";
 
-            Path filePath = null;
+        if (!Files.isDirectory(directory)) {
+            return Optional.empty();
+        }
 
-            for (Path document : Files.list(other).toList()) {
-                if (document.getFileName().toString().startsWith(requestID.toString())) {
-                    filePath = document;
-                }
-            }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix))
+                    .findFirst()
+                    .map(file -> describe(citizenID, file.getFileName().toString(), sizeOf(file), hash(file)));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-            if (filePath == null) {
-                throw new BadRequestException("File does not exist");
-            }
+    public StoredFile describe(Integer citizenID, String fileName, long size, String hash) {
+        String extension = fileName.substring(fileName.lastIndexOf("."));
 
-            Resource resource = new UrlResource(filePath.toUri());
+        return StoredFile.builder()
+                .path(citizenID + "/" + fileName)
+                .extension(extension)
+                .size(size)
+                .contentType(contentType(extension))
+                .hash(hash)
+                .build();
+    }
+
+    public String hash(Path file) {
+        MessageDigest digest = sha256();
 
-            if (!resource.exists() || !resource.isReadable())
-                throw new BadRequestException("File does not exist");
-            return resource;
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // typ wynika z rozszerzenia, nie z nagłówka wysłanego przez klienta - plik jest serwowany inline
+    private static String contentType(String extension) {
+        return switch (extension.toLowerCase(Locale.ROOT)) {
+            case ".jpg", ".jpeg" -> "image/jpeg";
+            case ".png" -> "image/png";
+            case ".gif" -> "image/gif";
+            default -> "application/octet-stream";
+        };
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -1,16 +1,19 @@
 package com.pk.mobywatel.service;
 
 import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.util.Role;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
-import org.hibernate.annotations.DialectOverride;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -20,24 +23,67 @@ import java.util.function.Function;
 @Service
 @RequiredArgsConstructor
 public class JwtService {
+    private static final String VERIFIED_TOKEN_ATTRIBUTE = JwtService.class.getName() + ".VERIFIED_TOKEN";
+
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+    static final String TOKEN_VERSION_CLAIM = "ver";
+    static final long TOKEN_VALIDITY_MS = 1000*60*60*24;
+
     @Value("${jwt.secret-key}")
     private String SECRET_KEY;
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username != null && username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    // klucz i parser są niemutowalne i thread-safe, więc budujemy je raz
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        signInKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        parser = Jwts.parser().verifyWith(signInKey).build();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // Weryfikuje podpis i parsuje token raz; wynik jest zapamiętywany w requeście,
+    // więc filtr, serwisy i kontrolery obsługujące ten sam request nie parsują go ponownie
+    public VerifiedToken verify(String token) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes != null
+                && attributes.getAttribute(VERIFIED_TOKEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof VerifiedToken cached
+                && cached.token().equals(token)) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        VerifiedToken verified = new VerifiedToken(
+                token,
+                claims.getSubject(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                claims.get(USER_ID_CLAIM, Integer.class),
+                role == null ? null : Role.valueOf(role),
+                claims.get(TOKEN_VERSION_CLAIM, Integer.class)
+        );
+
+        if (attributes != null) {
+            attributes.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, verified, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        return verified;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        final String username = token.subject();
+        return username != null && username.equals(userDetails.getUsername()) && !token.isExpired();
+    }
+
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(verify(token), userDetails);
     }
 
     public String extractUsername(String token){
-        return extractClaim(token, Claims::getSubject); // subject to username albo email
+        return verify(token).subject(); // subject to username albo email
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver){
@@ -46,7 +92,16 @@ public class JwtService {
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+
+        // dane potrzebne filtrowi do zbudowania principala bez zapytania do bazy
+        if (userDetails instanceof UserModel user && user.getUserID() != null && user.getRole() != null) {
+            claims.put(USER_ID_CLAIM, user.getUserID());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion() == null ? 0 : user.getTokenVersion());
+        }
+
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails){
@@ -54,16 +109,16 @@ public class JwtService {
                 .claims(extraClaims)
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis()+1000*60*60*24))
-                .signWith(getSignInKey())
+                .expiration(new Date(System.currentTimeMillis()+TOKEN_VALIDITY_MS))
+                .signWith(signInKey)
                 .compact();
     }
 
-    private SecretKey getSignInKey(){
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private Claims extractAllClaims(String token){
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Claims extractAllClaims(String token){
-        return Jwts.parser().verifyWith(getSignInKey()).build().parseSignedClaims(token).getPayload();
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
     }
 }
@@ -0,0 +1,99 @@
+package com.pk.mobywatel.service;
+
+import com.pk.mobywatel.util.LicenseCategory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Jednorazowe przeniesienie kategorii z tabel kolekcji (wiersz na kategorię) do kolumn categories_mask.
+// Maski są liczone w Javie (Oracle przed 21c nie ma agregatu OR), zapisywane batchem, a przeniesione wiersze
+// usuwane w tej samej transakcji - po migracji stara tabela jest pusta i kolejne uruchomienia kończą się na jednym zapytaniu.
+@Service
+@RequiredArgsConstructor
+public class LicenseCategoryMaskMigration {
+    private static final String LICENSE_CATEGORIES_TABLE = "driver_license_categories";
+    private static final String REQUEST_CATEGORIES_TABLE = "driver_license_request_categories";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.license-categories.migration.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+
+        int licenses = migrate(LICENSE_CATEGORIES_TABLE, "driver_license", "document_id");
+        int requests = migrate(REQUEST_CATEGORIES_TABLE, "driver_license_issue_request", "request_id");
+
+        if (licenses > 0 || requests > 0) {
+            System.out.println("License category migration finished: " + licenses + " licenses, " + requests + " requests");
+        }
+    }
+
+    public int migrate(String categoriesTable, String targetTable, String idColumn) {
+        if (!tableExists(categoriesTable)) {
+            return 0;
+        }
+
+        Integer migrated = transactionTemplate.execute(status -> {
+            // ID -> maska złożona ze wszystkich wierszy kategorii
+            Map<Integer, Integer> masks = new HashMap<>();
+            jdbcTemplate.query("SELECT driver_license_id, categories FROM " + categoriesTable, row -> {
+                int bit = LicenseCategory.valueOf(row.getString(2)).bit();
+                masks.merge(row.getInt(1), bit, (a, b) -> a | b);
+            });
+
+            if (masks.isEmpty()) {
+                return 0;
+            }
+
+            List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(masks.entrySet());
+
+            // OR z istniejącą maską, żeby nie zgubić kategorii zapisanych już w nowym formacie
+            jdbcTemplate.batchUpdate("UPDATE " + targetTable + " SET categories_mask = categories_mask + ? - BITAND(categories_mask, ?) WHERE " + idColumn + " = ?",
+                    entries, 500, (ps, entry) -> {
+                        ps.setInt(1, entry.getValue());
+                        ps.setInt(2, entry.getValue());
+                        ps.setInt(3, entry.getKey());
+                    });
+
+            jdbcTemplate.update("DELETE FROM " + categoriesTable);
+            return entries.size();
+        });
+
+        return migrated == null ? 0 : migrated;
+    }
+
+    // po usunięciu @ElementCollection nowa baza (ddl-auto create) nie ma już tych tabel
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+
+            for (String name : new String[]{table.toUpperCase(Locale.ROOT), table}) {
+                try (ResultSet tables = metaData.getTables(null, null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
@@ -6,20 +6,21 @@ import com.pk.mobywatel.request.CitizenBody;
 import com.pk.mobywatel.request.ProcessDocumentIssueBody;
 import com.pk.mobywatel.request.ProcessPersonalDataUpdateBody;
 import com.pk.mobywatel.response.*;
-import com.pk.mobywatel.util.FilestorageyUtil;
 import com.pk.mobywatel.util.Gender;
 import com.pk.mobywatel.util.LicenseCategory;
 import com.pk.mobywatel.util.RequestedDocument;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import pl.unak7.peselvalidator.GenderEnum;
 import pl.unak7.peselvalidator.PeselValidator;
 
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -39,6 +40,17 @@ public class OfficialService {
     private final JwtService jwtService;
     private final OfficialRepository officialRepository;
     private final FilesystemService filesystemService;
+    private final TokenVersionService tokenVersionService;
+    private final UserDetailsCache userDetailsCache;
+
+    @Value("${app.pagination.citizens.page-size:50}")
+    private int citizenPageSize;
+
+    @Value("${app.pagination.requests.page-size:50}")
+    private int requestPageSize;
+
+    @Value("${app.pagination.max-page-size:500}")
+    private int maxPageSize;
 
     @Transactional
     public void updateCitizenAccount(CitizenBody body) throws BadRequestException {
@@ -47,11 +59,15 @@ public class OfficialService {
 
         Citizen citizen = citizenRepository.findById(body.citizenID()).orElseThrow(() -> new BadRequestException("Citizen not found"));
         UserModel user = citizen.getUser();
+        boolean credentialsChanged = false;
+        // przed zmianą emaila, bo kluczem w cache jest hash obecnego
+        userDetailsCache.invalidate(user);
 
         // Jeśli pole jest null lub składa sie z białych znaków to jest pomijane (nie wyrzuca błędu)
         if(validator.validateUpdateField(body.email())){
             if(validator.checkEmailRegex(body.email())){
                 if(!body.email().equals(user.getEmail()) && validator.checkIfEmailIsTaken(body.email())) throw new BadRequestException("Email is taken");
+                credentialsChanged = !body.email().equals(user.getEmail());
                 user.setEmail(body.email());
             }
             else throw new BadRequestException("Invalid email");
@@ -60,8 +76,12 @@ public class OfficialService {
         if(validator.validateUpdateField(body.password())){
             if(validator.checkPasswordRegex(body.password())) user.setPassword(passwordEncoder.encode(body.password()));
             else throw new BadRequestException("Invalid password");
+            credentialsChanged = true;
         }
 
+        // wcześniej wydane tokeny niosą stary email/hasło, więc je unieważniamy
+        if(credentialsChanged) tokenVersionService.revoke(user);
+
         if(validator.validateUpdateField(body.firstName())) citizen.setFirstName(body.firstName());
 
         if(validator.validateUpdateField(body.lastName())) citizen.setLastName(body.lastName());
@@ -101,26 +121,25 @@ public class OfficialService {
         citizenRepository.save(citizen);
     }
 
-    public List<CitizenDto> fetchCitizens(){
-        List<CitizenDto> citizens = citizenRepository.findAll()
-                .stream()
-                .map(citizen -> new CitizenDto(
-                        citizen.getCitizenID(),
-                        citizen.getFirstName(),
-                        citizen.getLastName(),
-                        citizen.getBirthDate(),
-                        citizen.getPESEL(),
-                        citizen.getGender(),
-                        citizen.getUser().getEmail()
-                ))
-                .toList();
+    public CitizenPageDto fetchCitizens(Integer after, Integer size) throws BadRequestException {
+        int pageSize = resolvePageSize(size, citizenPageSize);
+
+        // jeden wiersz więcej, żeby wiedzieć czy istnieje następna strona
+        List<CitizenDto> citizens = citizenRepository.findCitizenPage(after == null ? 0 : after, PageRequest.of(0, pageSize + 1));
+
+        if (citizens.size() <= pageSize) {
+            return new CitizenPageDto(citizens, null);
+        }
 
-        return citizens;
+        List<CitizenDto> page = citizens.subList(0, pageSize);
+        return new CitizenPageDto(page, page.get(pageSize - 1).citizenID());
     }
 
     @Transactional
     public void deleteCitizenAccount(Integer citizenID) throws BadRequestException {
         Citizen citizen = citizenRepository.findById(citizenID).orElseThrow(() ->new BadRequestException("Citizen not found"));
+        if(citizen.getUser() != null) tokenVersionService.revoke(citizen.getUser());
+        userDetailsCache.invalidate(citizen.getUser());
         citizenRepository.delete(citizen);
     }
 
@@ -152,25 +171,17 @@ public class OfficialService {
                 citizen.getUser().getEmail());
     }
 
-    public List<PersonaDataUpdateRequestDto> getUpdateRequests() {
-        return personalDataUpdateRequestRepository.findAll().stream()
-                .map(request -> {
-                    if (!request.getProcessed())
-                        return new PersonaDataUpdateRequestDto(
-                                request.getRequestID(),
-                                request.getCitizen().getCitizenID(),
-                                request.getRequestedFirstName(),
-                                request.getRequestedLastName(),
-                                request.getRequestedGender(),
-                                request.getApproved(),
-                                false,
-                                request.getRequestDate()
-                        );
-                    else
-                        return null;
-                })
-                .filter(Objects::nonNull)
-                .toList();
+    public PersonalDataUpdateRequestPageDto getUpdateRequests(Integer after, Integer size) throws BadRequestException {
+        int pageSize = resolvePageSize(size, requestPageSize);
+
+        List<PersonaDataUpdateRequestDto> requests = personalDataUpdateRequestRepository.findPendingPage(after == null ? 0 : after, PageRequest.of(0, pageSize + 1));
+
+        if (requests.size() <= pageSize) {
+            return new PersonalDataUpdateRequestPageDto(requests, null);
+        }
+
+        List<PersonaDataUpdateRequestDto> page = requests.subList(0, pageSize);
+        return new PersonalDataUpdateRequestPageDto(page, page.get(pageSize - 1).requestID());
     }
 
     public void personalDataUpdate(ProcessPersonalDataUpdateBody body) throws BadRequestException {
@@ -195,26 +206,41 @@ public class OfficialService {
         personalDataUpdateRequestRepository.updatePersonalDataRequest(body.requestID(), body.approval());
     }
 
-    public List<DocumentIssueRequestDto> getDocumentIssueRequests() {
-        return documentIssueRequestRepository.findAll().stream()
+    public DocumentIssueRequestPageDto getDocumentIssueRequests(Integer after, Integer size) throws BadRequestException {
+        int pageSize = resolvePageSize(size, requestPageSize);
+
+        List<DocumentIssueRequest> requests = documentIssueRequestRepository.findPendingPage(after == null ? 0 : after, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = requests.size() > pageSize;
+        List<DocumentIssueRequest> page = hasNext ? requests.subList(0, pageSize) : requests;
+
+        List<DocumentIssueRequestDto> dtos = page.stream()
                 .map(request -> {
-                    if (!request.getProcessed()) {
-                        try {
-                            return mapToDto(request);
-                        } catch (BadRequestException e) {
-                            return null;
-                        }
-                    }
-                    else
+                    try {
+                        return mapToDto(request);
+                    } catch (BadRequestException e) {
                         return null;
+                    }
                 })
                 .filter(Objects::nonNull)
                 .toList();
+
+        // kursor z encji, nie z DTO - odfiltrowane wnioski nie mogą urwać stronicowania
+        return new DocumentIssueRequestPageDto(dtos, hasNext ? page.get(pageSize - 1).getRequestID() : null);
     }
 
-    private DocumentIssueRequestDto mapToDto(DocumentIssueRequest documentIssueRequest) throws BadRequestException {
-        Resource photo = filesystemService.loadDoc(documentIssueRequest.getCitizen().getCitizenID(), documentIssueRequest.getRequestID(), FilestorageyUtil.REQUEST);
+    private int resolvePageSize(Integer size, int defaultSize) throws BadRequestException {
+        int pageSize = size == null ? defaultSize : size;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+        return pageSize;
+    }
 
+    private DocumentIssueRequestDto mapToDto(DocumentIssueRequest documentIssueRequest) throws BadRequestException {
+        // wnioski bez zapisanego zdjęcia są pomijane - metadane zamiast sprawdzania pliku na dysku
+        if (documentIssueRequest.getPhoto() == null) {
+            throw new BadRequestException("File does not exist");
+        }
 
         if (documentIssueRequest instanceof DriverLicenseIssueRequest dl) {
             return DriverLicenseIssueDto.builder()
@@ -222,7 +248,7 @@ public class OfficialService {
                     .citizenID(dl.getCitizen().getCitizenID())
 //                    .photo(photo)
                     .type(RequestedDocument.DRIVER_LICENSE)
-                    .categories(dl.getCategories().stream().sorted().toList())
+                    .categories(List.copyOf(dl.getCategories()))
                     .build();
         } else if (documentIssueRequest instanceof IdentityCardIssueRequest ic) {
             return IdentityCardIssueDto.builder()
@@ -246,7 +272,7 @@ public class OfficialService {
         }
 
         if (body.approval()) {
-            UserModel officialUser = userRepository.findByEmail(jwtService.extractUsername(token))
+            UserModel officialUser = userRepository.findByEmail(jwtService.verify(token).subject())
                     .orElseThrow(() -> new BadRequestException("Official user not found."));
 
             Official official = officialRepository.findByUser(officialUser)
@@ -281,7 +307,8 @@ public class OfficialService {
 
                 documentRepository.save(identityCard);
 
-                filesystemService.moveRequestToDocs(identityCard.getCitizen().getCitizenID(), documentIssueRequest.getRequestID(), identityCard.getDocumentID());
+                identityCard.setPhoto(filesystemService.moveRequestToDocs(documentIssueRequest.getPhoto(), identityCard.getCitizen().getCitizenID(), documentIssueRequest.getRequestID(), identityCard.getDocumentID()));
+                documentRepository.save(identityCard);
             } else if (documentIssueRequest instanceof DriverLicenseIssueRequest) {
                 DriverLicense driverLicense;
 
@@ -295,11 +322,10 @@ public class OfficialService {
                     driverLicense.setExpirationDate(body.expirationDate());
                     driverLicense.setIssueAuthority(official);
 
-                    for (LicenseCategory category: ((DriverLicenseIssueRequest) documentIssueRequest).getCategories()) {
-                        if (!driverLicense.getCategories().contains(category)) {
-                            driverLicense.getCategories().add(category);
-                        }
-                    }
+                    // suma masek kategorii, nowy zbiór zamiast modyfikacji w miejscu - dirty checking widzi zmianę
+                    EnumSet<LicenseCategory> categories = LicenseCategory.setOf(driverLicense.getCategories());
+                    categories.addAll(((DriverLicenseIssueRequest) documentIssueRequest).getCategories());
+                    driverLicense.setCategories(categories);
                 } else {
                     driverLicense = DriverLicense.builder()
                             .citizen(documentIssueRequest.getCitizen())
@@ -307,13 +333,14 @@ public class OfficialService {
                             .expirationDate(body.expirationDate())
                             .issueAuthority(official)
                             .lost(false)
-                            .categories(((DriverLicenseIssueRequest) documentIssueRequest).getCategories().stream().sorted().toList())
+                            .categories(LicenseCategory.setOf(((DriverLicenseIssueRequest) documentIssueRequest).getCategories()))
                             .build();
                 }
 
                 documentRepository.save(driverLicense);
 
-                filesystemService.moveRequestToDocs(driverLicense.getCitizen().getCitizenID(), documentIssueRequest.getRequestID(), driverLicense.getDocumentID());
+                driverLicense.setPhoto(filesystemService.moveRequestToDocs(documentIssueRequest.getPhoto(), driverLicense.getCitizen().getCitizenID(), documentIssueRequest.getRequestID(), driverLicense.getDocumentID()));
+                documentRepository.save(driverLicense);
             }
         }
 
@@ -0,0 +1,113 @@
+package com.pk.mobywatel.service;
+
+import com.pk.mobywatel.exceptions.PasswordHashingBusyException;
+import com.pk.mobywatel.util.ServerTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Osobna pula dla BCrypt (encode / matches): tyle wątków, ile rdzeni, i ograniczona kolejka.
+// Haszowanie nie zajmuje więcej CPU niż pula, a przy pełnej kolejce request dostaje od razu 503 + Retry-After,
+// zamiast czekać na wątku Tomcata - fala logowań nie blokuje reszty API.
+// Metryki: auth.password.queue.wait (czas w kolejce), auth.password.hash (samo haszowanie),
+// auth.password.rejected, auth.password.queue.depth.
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingExecutor {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.password-hashing.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejected;
+
+    @PostConstruct
+    public void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> Thread.ofPlatform()
+                        .name("password-hashing-" + counter.incrementAndGet())
+                        .daemon(true)
+                        .unstarted(runnable),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashing operations waiting for a thread")
+                .register(meterRegistry);
+        rejected = Counter.builder("auth.password.rejected")
+                .description("Password hashing operations rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // faza "hash" w Server-Timing obejmuje też czekanie w kolejce - request i tak na nie czeka
+    public <T> T execute(String operation, Supplier<T> task) {
+        try (ServerTiming.Scope ignored = ServerTiming.start(ServerTiming.Phase.HASH)) {
+            return submitAndWait(operation, task);
+        }
+    }
+
+    private <T> T submitAndWait(String operation, Supplier<T> task) {
+        Timer queueWait = Timer.builder("auth.password.queue.wait")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Timer hash = Timer.builder("auth.password.hash")
+                .tag("operation", operation)
+                .register(meterRegistry);
+
+        long submitted = System.nanoTime();
+        Future<T> future;
+
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    hash.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.pk.mobywatel.service;
+
+import com.pk.mobywatel.model.StoredFile;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+// Zdjęcie gotowe do wysłania: ścieżka, metadane z bazy i atrybuty z jedynego stat-a
+public record PhotoFile(Path path,
+                        StoredFile meta,
+                        BasicFileAttributes attributes) {
+}
@@ -0,0 +1,134 @@
+package com.pk.mobywatel.service;
+
+import com.pk.mobywatel.model.StoredFile;
+import com.pk.mobywatel.util.FilestorageyUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Jednorazowe uzupełnienie metadanych zdjęć (photo_*) dla plików zapisanych przed ich wprowadzeniem.
+// Czytane (hash treści dla ETag) są tylko pliki wierszy bez photo_hash, więc po pierwszym uruchomieniu
+// migracja kończy się na jednym zapytaniu. Katalog obywatela jest listowany raz, wiersze aktualizowane batchem.
+@Service
+@RequiredArgsConstructor
+public class PhotoIndexMigration {
+    private static final String PENDING_REQUEST_SQL = "SELECT citizen_id, request_id FROM document_issue_request WHERE photo_hash IS NULL";
+    private static final String PENDING_DOCUMENT_SQL = "SELECT citizen_id, document_id FROM document WHERE photo_hash IS NULL";
+    private static final String UPDATE_REQUEST_SQL = "UPDATE document_issue_request SET photo_path = ?, photo_extension = ?, photo_size = ?, photo_content_type = ?, photo_hash = ? " +
+            "WHERE request_id = ? AND citizen_id = ? AND photo_hash IS NULL";
+    private static final String UPDATE_DOCUMENT_SQL = "UPDATE document SET photo_path = ?, photo_extension = ?, photo_size = ?, photo_content_type = ?, photo_hash = ? " +
+            "WHERE document_id = ? AND citizen_id = ? AND photo_hash IS NULL";
+
+    private final FilesystemService filesystemService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.files.index-migration.enabled:true}")
+    private boolean enabled;
+
+    private record IndexedFile(Integer citizenID, Integer id, StoredFile file) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+
+        int requests = index(FilestorageyUtil.REQUEST, PENDING_REQUEST_SQL, UPDATE_REQUEST_SQL);
+        int documents = index(FilestorageyUtil.DOCUMENT, PENDING_DOCUMENT_SQL, UPDATE_DOCUMENT_SQL);
+
+        if (requests > 0 || documents > 0) {
+            System.out.println("Photo index migration finished: " + requests + " requests, " + documents + " documents");
+        }
+    }
+
+    public int index(FilestorageyUtil type, String pendingSql, String updateSql) {
+        Path root = filesystemService.root(type);
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+
+        // citizenID -> ID wierszy bez metadanych
+        Map<Integer, Set<Integer>> pending = new HashMap<>();
+        jdbcTemplate.query(pendingSql, row -> {
+            pending.computeIfAbsent(row.getInt(1), citizenID -> new HashSet<>()).add(row.getInt(2));
+        });
+
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        int updated = 0;
+
+        try (Stream<Path> citizenDirectories = Files.list(root)) {
+            for (Path directory : citizenDirectories.filter(Files::isDirectory).toList()) {
+                Integer citizenID = parseID(directory.getFileName().toString());
+                if (citizenID == null || !pending.containsKey(citizenID)) {
+                    continue;
+                }
+
+                List<IndexedFile> files = scan(citizenID, directory, pending.get(citizenID));
+                if (files.isEmpty()) {
+                    continue;
+                }
+
+                int[][] counts = jdbcTemplate.batchUpdate(updateSql, files, files.size(), (ps, indexed) -> {
+                    ps.setString(1, indexed.file().getPath());
+                    ps.setString(2, indexed.file().getExtension());
+                    ps.setLong(3, indexed.file().getSize());
+                    ps.setString(4, indexed.file().getContentType());
+                    ps.setString(5, indexed.file().getHash());
+                    ps.setInt(6, indexed.id());
+                    ps.setInt(7, indexed.citizenID());
+                });
+
+                // sterowniki mogą zwracać SUCCESS_NO_INFO (-2) zamiast liczby wierszy
+                updated += Arrays.stream(counts).flatMapToInt(Arrays::stream).map(count -> Math.max(count, 0)).sum();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        return updated;
+    }
+
+    private List<IndexedFile> scan(Integer citizenID, Path directory, Set<Integer> ids) throws IOException {
+        List<IndexedFile> files = new ArrayList<>();
+
+        try (Stream<Path> entries = Files.list(directory)) {
+            for (Path file : entries.filter(Files::isRegularFile).toList()) {
+                String fileName = file.getFileName().toString();
+                int dot = fileName.lastIndexOf(".");
+                Integer id = dot > 0 ? parseID(fileName.substring(0, dot)) : null;
+
+                if (id != null && ids.contains(id)) {
+                    files.add(new IndexedFile(citizenID, id, filesystemService.describe(citizenID, fileName, Files.size(file), filesystemService.hash(file))));
+                }
+            }
+        }
+
+        return files;
+    }
+
+    private static Integer parseID(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.pk.mobywatel.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+// Wysyła zdjęcie z nagłówkami cache (ETag z hasha treści, Last-Modified, Cache-Control: private),
+// odpowiada 304 na If-None-Match / If-Modified-Since i obsługuje pojedynczy zakres Range (206).
+// Treść idzie przez sendfile Tomcata (jądro kopiuje plik prosto do gniazda). Gdy konektor go nie
+// obsługuje (np. TLS), zostaje FileChannel.transferTo do strumienia odpowiedzi - to zwykłe kopiowanie
+// przez bufory na stercie (kanał strumienia nie jest gniazdem), tylko bez ładowania całego pliku naraz.
+// Bez kopii w JVM są wyłącznie sendfile i X_ACCEL.
+// W trybie X_ACCEL backend tylko autoryzuje i odpowiada nagłówkiem X-Accel-Redirect - plik (razem z Range)
+// wysyła nginx z lokalizacji internal (app.files.x-accel.prefix, patrz nginx.prod.conf).
+@Service
+public class PhotoResponseWriter {
+    public enum ServingMode { DIRECT, X_ACCEL }
+
+    private static final String X_ACCEL_REDIRECT = "X-Accel-Redirect";
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private record ByteRange(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    private static final ByteRange UNSATISFIABLE = new ByteRange(-1, -2);
+
+    private final CacheControl cacheControl;
+    private final ServingMode servingMode;
+    private final String xAccelPrefix;
+
+    public PhotoResponseWriter(@Value("${app.files.cache-max-age-seconds:300}") long cacheMaxAgeSeconds,
+                               @Value("${app.files.serving-mode:DIRECT}") ServingMode servingMode,
+                               @Value("${app.files.x-accel.prefix:/protected-files/}") String xAccelPrefix) {
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(cacheMaxAgeSeconds)).cachePrivate();
+        this.servingMode = servingMode;
+        this.xAccelPrefix = xAccelPrefix.endsWith("/") ? xAccelPrefix : xAccelPrefix + "/";
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, PhotoFile photo) throws IOException {
+        write(request, response, photo, cacheControl);
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, PhotoFile photo, CacheControl cacheControl) throws IOException {
+        String etag = photo.meta().getHash() == null ? null : "\"" + photo.meta().getHash() + "\"";
+        long lastModified = photo.attributes().lastModifiedTime().toMillis();
+        long length = photo.attributes().size();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // ustawia ETag i Last-Modified, a przy zgodnym If-None-Match / If-Modified-Since status 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        if (servingMode == ServingMode.X_ACCEL) {
+            response.setContentType(photo.meta().getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + photo.path().getFileName() + "\"");
+            // ścieżka względna, np. documents/12/34.jpg -> /protected-files/documents/12/34.jpg
+            response.setHeader(X_ACCEL_REDIRECT, xAccelPrefix + photo.path().normalize().toString().replace(File.separatorChar, '/'));
+            return;
+        }
+
+        ByteRange range = new ByteRange(0, length - 1);
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+
+        if (rangeHeader != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            ByteRange requested = parseRange(rangeHeader, length);
+
+            if (requested == UNSATISFIABLE) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+
+            if (requested != null) {
+                range = requested;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + length);
+            }
+        }
+
+        response.setContentType(photo.meta().getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + photo.path().getFileName() + "\"");
+        response.setContentLengthLong(range.length());
+
+        if ("HEAD".equals(request.getMethod()) || range.length() == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, photo.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            // koniec wyłączny
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+
+        // fallback: kopiowanie porcjami przez bufor w JVM, nie zero-copy
+        try (FileChannel channel = FileChannel.open(photo.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // If-Range z innym ETagiem / datą oznacza, że klient ma starą wersję - wtedy wysyłamy cały plik
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return date / 1000 == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    // obsługiwany jest jeden zakres: "a-b", "a-" albo "-n"; wiele zakresów albo błędna składnia = cały plik (null)
+    private static ByteRange parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffix), length - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            if (end < start) {
+                return null;
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.pk.mobywatel.service;
+
+import com.pk.mobywatel.model.StoredFile;
+import com.pk.mobywatel.response.PhotoUrlResponse;
+import com.pk.mobywatel.util.FilestorageyUtil;
+import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Krótkotrwałe linki do zdjęć podpisane HMAC-SHA256: autoryzacja odbywa się raz przy wydaniu linku,
+// a samo pobranie sprawdza tylko podpis i termin (bez JWT i bez zapytań do bazy).
+// Termin jest wyrównany do okna TTL, więc w obrębie okna link jest identyczny i przeglądarka trafia w cache.
+@Service
+public class PhotoUrlSigner {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] DERIVATION_LABEL = "mobywatel-photo-url".getBytes(StandardCharsets.UTF_8);
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final String DOCUMENT_SEGMENT = "doc";
+    private static final String REQUEST_SEGMENT = "request";
+
+    private final BlockingQueue<Mac> macs = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+
+    public PhotoUrlSigner(@Value("${app.files.url-signing-key:}") String signingKey,
+                          @Value("${jwt.secret-key}") String jwtSecretKey,
+                          @Value("${app.files.signed-url-ttl-seconds:300}") long ttlSeconds) {
+        this.key = signingKey.isBlank() ? deriveKey(jwtSecretKey) : new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public PhotoUrlResponse sign(FilestorageyUtil type, StoredFile photo) {
+        String segment = type == FilestorageyUtil.DOCUMENT ? DOCUMENT_SEGMENT : REQUEST_SEGMENT;
+        String hash = Objects.toString(photo.getHash(), "");
+        long expires = (Instant.now().getEpochSecond() / ttlSeconds + 2) * ttlSeconds;
+
+        String url = "/api/photo/signed/" + segment + "/" + photo.getPath()
+                + "?v=" + hash
+                + "&expires=" + expires
+                + "&signature=" + signature(segment, photo.getPath(), hash, expires);
+
+        return new PhotoUrlResponse(url, expires);
+    }
+
+    public FilestorageyUtil verify(String segment, String path, String hash, long expires, String signature) throws BadRequestException {
+        FilestorageyUtil type = switch (segment) {
+            case DOCUMENT_SEGMENT -> FilestorageyUtil.DOCUMENT;
+            case REQUEST_SEGMENT -> FilestorageyUtil.REQUEST;
+            default -> throw new BadRequestException("Invalid photo link");
+        };
+
+        byte[] expected = signature(segment, path, hash, expires).getBytes(StandardCharsets.ISO_8859_1);
+        if (!MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.ISO_8859_1))) {
+            throw new BadRequestException("Invalid photo link");
+        }
+
+        if (expires < Instant.now().getEpochSecond()) {
+            throw new BadRequestException("Photo link has expired");
+        }
+
+        return type;
+    }
+
+    private String signature(String segment, String path, String hash, long expires) {
+        String payload = segment + "\n" + path + "\n" + hash + "\n" + expires;
+
+        try {
+            Mac mac = macs.poll();
+            if (mac == null) {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+            }
+
+            byte[] digest = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            macs.offer(mac);
+
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error while signing photo link", e);
+        }
+    }
+
+    // osobny klucz, gdy nie skonfigurowano dedykowanego: HMAC(klucz JWT, etykieta)
+    private static SecretKeySpec deriveKey(String secretKey) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return new SecretKeySpec(mac.doFinal(DERIVATION_LABEL), ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error while deriving photo link key", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.pk.mobywatel.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+// Przejście z kolumn IDENTITY na sekwencje (Oracle) dla lokalnych / deweloperskich baz (ddl-auto update):
+// zdejmuje IDENTITY z kolumny ID (kolumna GENERATED ALWAYS nie przyjmuje ID z sekwencji) i przestawia sekwencję
+// ponad MAX(ID). Domyślnie wyłączona (app.sequences.migration.enabled) - na produkcji schemat zmienia się ręcznie,
+// te same polecenia są w PRODUCTION.md.
+// Pooled optimizer traktuje wartość sekwencji jako górną granicę puli (wartość - allocationSize, wartość],
+// dlatego sekwencja startuje od MAX(ID) + allocationSize + 1.
+// Uruchamiana po utworzeniu EntityManagerFactory (ddl-auto tworzy brakujące sekwencje), a przed pierwszymi insertami.
+@Service
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SequenceMigration {
+    private record SequenceTarget(String table, String idColumn, String sequence, int allocationSize) {}
+
+    // muszą odpowiadać @SequenceGenerator w encjach
+    private static final List<SequenceTarget> TARGETS = List.of(
+            new SequenceTarget("user_model", "user_id", "user_model_seq", 50),
+            new SequenceTarget("citizen", "citizen_id", "citizen_seq", 50),
+            new SequenceTarget("official", "official_id", "official_seq", 50),
+            new SequenceTarget("document", "document_id", "document_seq", 50),
+            new SequenceTarget("document_issue_request", "request_id", "document_issue_request_seq", 50),
+            new SequenceTarget("personal_data_update_request", "request_id", "personal_data_update_request_seq", 50),
+            new SequenceTarget("endpoint_log", "log_id", "endpoint_log_seq", 1)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.sequences.migration.enabled:false}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+
+        int changed = 0;
+        for (SequenceTarget target : TARGETS) {
+            if (migrate(target)) {
+                changed++;
+            }
+        }
+
+        if (changed > 0) {
+            System.out.println("Sequence migration finished: " + changed + " tables moved to sequences");
+        }
+    }
+
+    private boolean migrate(SequenceTarget target) {
+        boolean changed = false;
+
+        Integer identityColumns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_tab_identity_cols WHERE table_name = UPPER(?) AND column_name = UPPER(?)",
+                Integer.class, target.table(), target.idColumn());
+        if (identityColumns != null && identityColumns > 0) {
+            jdbcTemplate.execute("ALTER TABLE " + target.table() + " MODIFY (" + target.idColumn() + " DROP IDENTITY)");
+            changed = true;
+        }
+
+        long maxID = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + target.idColumn() + "), 0) FROM " + target.table(), Long.class);
+        long start = maxID + target.allocationSize() + 1;
+
+        // NEXTVAL zamiast user_sequences.last_number - przy CACHE last_number wyprzedza faktyczną następną wartość
+        long next = jdbcTemplate.queryForObject("SELECT " + target.sequence() + ".NEXTVAL FROM dual", Long.class);
+        if (next < start) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + target.sequence() + " RESTART START WITH " + start);
+            changed = true;
+        }
+
+        return changed;
+    }
+}
@@ -0,0 +1,84 @@
+package com.pk.mobywatel.service;
+
+import com.pk.mobywatel.model.TokenRevocation;
+import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.repository.TokenRevocationRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class TokenVersionService {
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    // userID -> najniższa wersja tokenu, która jest jeszcze akceptowana; zawiera tylko użytkowników
+    // z unieważnionymi tokenami z ostatniej doby, więc sprawdzenie w filtrze to jeden lookup w pamięci
+    private final Map<Integer, MinimumVersion> minimumVersions = new ConcurrentHashMap<>();
+
+    private record MinimumVersion(int version, long revokedAt) {}
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    // odświeżanie z bazy, żeby unieważnienia z innych instancji aplikacji też były widoczne
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:30000}")
+    public void refresh() {
+        // po czasie życia tokenu żaden token ze starszą wersją nie przejdzie już weryfikacji
+        long cutoff = System.currentTimeMillis() - JwtService.TOKEN_VALIDITY_MS;
+        tokenRevocationRepository.deleteRevokedBefore(new Timestamp(cutoff));
+
+        // scalanie, nie podmiana mapy: unieważnienie zatwierdzone w trakcie odczytu (już w mapie, jeszcze nie
+        // w odczytanym stanie bazy) nie może zniknąć, więc zostaje wyższa z dwóch wersji
+        for (TokenRevocation revocation : tokenRevocationRepository.findAll()) {
+            apply(revocation.getUserID(), revocation.getTokenVersion(), revocation.getRevokedAt().getTime());
+        }
+        minimumVersions.values().removeIf(minimum -> minimum.revokedAt() < cutoff);
+    }
+
+    public boolean isCurrent(VerifiedToken token) {
+        MinimumVersion minimum = minimumVersions.get(token.userID());
+        return minimum == null || token.tokenVersion() >= minimum.version();
+    }
+
+    @Transactional
+    public void revoke(UserModel user) {
+        int version = (user.getTokenVersion() == null ? 0 : user.getTokenVersion()) + 1;
+        long revokedAt = System.currentTimeMillis();
+        user.setTokenVersion(version);
+
+        tokenRevocationRepository.save(TokenRevocation.builder()
+                .userID(user.getUserID())
+                .tokenVersion(version)
+                .revokedAt(new Timestamp(revokedAt))
+                .build());
+
+        // dopiero po commicie - po rollbacku nowa wersja odrzucałaby tokeny wydane ze starą, która została w bazie
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(user.getUserID(), version, revokedAt);
+                }
+            });
+        } else {
+            apply(user.getUserID(), version, revokedAt);
+        }
+    }
+
+    private void apply(Integer userID, int version, long revokedAt) {
+        minimumVersions.merge(userID, new MinimumVersion(version, revokedAt),
+                (current, incoming) -> incoming.version() > current.version() ? incoming : current);
+    }
+}
@@ -0,0 +1,85 @@
+package com.pk.mobywatel.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pk.mobywatel.config.CachedUser;
+import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.repository.UserRepository;
+import com.pk.mobywatel.util.BlindIndexUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Optional;
+
+// Cache principali po blind indeksie emaila, żeby filtr JWT, logowanie i /validate-token nie czytały
+// user_model przy każdym wywołaniu. Rozmiar i TTL są ograniczone. Nieistniejący użytkownik nie jest
+// zapamiętywany, więc rejestracja nie musi niczego unieważniać.
+// Zmiana lub usunięcie konta unieważnia wpis od razu i drugi raz po zakończeniu transakcji. Bez tego
+// równoległy odczyt sprzed commitu mógłby wstawić do cache stary stan. Inne instancje zobaczą zmianę
+// najpóźniej po TTL. Metryki: cache.gets{cache=users.details, result=hit|miss}, cache.evictions itd.
+@Service
+@RequiredArgsConstructor
+public class UserDetailsCache {
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.user-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<String, CachedUser> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.details");
+    }
+
+    public Optional<CachedUser> find(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(cache.get(BlindIndexUtil.hash(email),
+                emailHash -> userRepository.findByEmailHash(emailHash).map(CachedUser::of).orElse(null)));
+    }
+
+    // wołać przed zmianą emaila - klucz to hash emaila z chwili wywołania
+    public void invalidate(UserModel user) {
+        if (user != null) {
+            invalidate(user.getEmail());
+        }
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+
+        String emailHash = BlindIndexUtil.hash(email);
+        cache.invalidate(emailHash);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(emailHash);
+                }
+            });
+        }
+    }
+}
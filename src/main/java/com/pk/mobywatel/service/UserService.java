@@ -1,5 +1,6 @@
 package com.pk.mobywatel.service;
 
+import com.pk.mobywatel.config.CachedUser;
 import com.pk.mobywatel.request.RegisterBody;
 import com.pk.mobywatel.model.Citizen;
 import com.pk.mobywatel.model.UserModel;
@@ -9,7 +10,7 @@ import com.pk.mobywatel.util.Role;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -18,8 +19,9 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final CitizenRepository citizenRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
     private final DataValidator validator;
+    private final UserDetailsCache userDetailsCache;
 
     @Transactional
     public void register(RegisterBody body) throws BadRequestException {
@@ -66,12 +68,12 @@ public class UserService {
 
 
     public Integer getUserIDFromEmail(String email){
-        UserModel user = userRepository.findByEmail(email).orElseThrow(()->new RuntimeException("No user with this username"));
-        return user.getUserID();
+        CachedUser user = userDetailsCache.find(email).orElseThrow(()->new RuntimeException("No user with this username"));
+        return user.userID();
     }
 
     public String[] getUserRolesFromEmail(String email) {
-        UserModel user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("No user with this email"));
-        return new String[]{"ROLE_" + user.getRole().name()};
+        CachedUser user = userDetailsCache.find(email).orElseThrow(() -> new RuntimeException("No user with this email"));
+        return new String[]{"ROLE_" + user.role().name()};
     }
 }
@@ -0,0 +1,24 @@
+package com.pk.mobywatel.service;
+
+import com.pk.mobywatel.util.Role;
+
+import java.time.Instant;
+
+// Niezmienny widok claimów tokenu, który przeszedł weryfikację podpisu (jeden parse na request)
+public record VerifiedToken(String token,
+                            String subject,
+                            Instant issuedAt,
+                            Instant expiration,
+                            Integer userID,
+                            Role role,
+                            Integer tokenVersion) {
+
+    public boolean isExpired() {
+        return expiration == null || expiration.isBefore(Instant.now());
+    }
+
+    // tokeny wydane przed dodaniem claimów uid/role/ver wymagają odczytu użytkownika z bazy
+    public boolean carriesPrincipal() {
+        return userID != null && role != null && tokenVersion != null;
+    }
+}
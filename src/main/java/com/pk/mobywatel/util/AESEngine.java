@@ -0,0 +1,117 @@
+package com.pk.mobywatel.util;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Szyfrowanie kolumn z pulą gotowych obiektów Cipher i kluczem budowanym raz.
+// Pula zamiast ThreadLocal: na wątkach wirtualnych ThreadLocal tworzyłby Cipher na każdy request,
+// a ArrayBlockingQueue nie blokuje wątku nośnego (brak synchronized).
+public class AESEngine {
+    public enum Mode { ECB, GCM }
+
+    private static final String ECB_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+    // szyfrogramy GCM mają prefiks; stare wartości ECB (czyste Base64, bez ':') są nadal odczytywane
+    private static final String GCM_PREFIX = "gcm:";
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private final SecretKeySpec key;
+    private final Mode mode;
+    private final SecureRandom random = new SecureRandom();
+    private final BlockingQueue<Cipher> encryptors = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final BlockingQueue<Cipher> decryptors = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final BlockingQueue<Cipher> gcmCiphers = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    public AESEngine(String secretKey) {
+        this(secretKey, Mode.ECB);
+    }
+
+    public AESEngine(String secretKey, Mode mode) {
+        this.key = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), "AES");
+        this.mode = mode;
+    }
+
+    public String encrypt(String plain) throws GeneralSecurityException {
+        if (mode == Mode.GCM) {
+            return encryptGcm(plain);
+        }
+
+        Cipher cipher = acquire(encryptors, Cipher.ENCRYPT_MODE);
+        byte[] encrypted = cipher.doFinal(plain.getBytes(StandardCharsets.UTF_8));
+        encryptors.offer(cipher);
+
+        // Base64 to czyste ASCII - ISO_8859_1 kopiuje bajty wprost do kompaktowego Stringa
+        return new String(Base64.getEncoder().encode(encrypted), StandardCharsets.ISO_8859_1);
+    }
+
+    public String decrypt(String encrypted) throws GeneralSecurityException {
+        if (encrypted.startsWith(GCM_PREFIX)) {
+            return decryptGcm(encrypted);
+        }
+
+        byte[] decoded = Base64.getDecoder().decode(encrypted.getBytes(StandardCharsets.ISO_8859_1));
+
+        Cipher cipher = acquire(decryptors, Cipher.DECRYPT_MODE);
+        byte[] plain = cipher.doFinal(decoded);
+        decryptors.offer(cipher);
+
+        return new String(plain, StandardCharsets.UTF_8);
+    }
+
+    // losowy IV przy każdym zapisie, format: gcm:Base64(IV || szyfrogram || tag)
+    private String encryptGcm(String plain) throws GeneralSecurityException {
+        byte[] plainBytes = plain.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = new byte[GCM_IV_LENGTH + plainBytes.length + GCM_TAG_BITS / 8];
+
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        random.nextBytes(iv);
+        System.arraycopy(iv, 0, payload, 0, GCM_IV_LENGTH);
+
+        Cipher cipher = acquireGcm();
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
+        cipher.doFinal(plainBytes, 0, plainBytes.length, payload, GCM_IV_LENGTH);
+        gcmCiphers.offer(cipher);
+
+        return GCM_PREFIX + new String(Base64.getEncoder().encode(payload), StandardCharsets.ISO_8859_1);
+    }
+
+    private String decryptGcm(String encrypted) throws GeneralSecurityException {
+        byte[] payload = Base64.getDecoder().decode(
+                encrypted.substring(GCM_PREFIX.length()).getBytes(StandardCharsets.ISO_8859_1));
+
+        Cipher cipher = acquireGcm();
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, payload, 0, GCM_IV_LENGTH));
+        byte[] plain = cipher.doFinal(payload, GCM_IV_LENGTH, payload.length - GCM_IV_LENGTH);
+        gcmCiphers.offer(cipher);
+
+        return new String(plain, StandardCharsets.UTF_8);
+    }
+
+    // doFinal przywraca Cipher do stanu po init, więc można go użyć ponownie bez init;
+    // po wyjątku Cipher nie wraca do puli, a nadmiarowe instancje (offer na pełnej kolejce) są porzucane
+    private Cipher acquire(BlockingQueue<Cipher> pool, int mode) throws GeneralSecurityException {
+        Cipher cipher = pool.poll();
+        if (cipher != null) {
+            return cipher;
+        }
+
+        cipher = Cipher.getInstance(ECB_TRANSFORMATION);
+        cipher.init(mode, key);
+        return cipher;
+    }
+
+    // GCM wymaga init z nowym IV przy każdym użyciu, więc pula trzyma tylko instancje z getInstance
+    private Cipher acquireGcm() throws GeneralSecurityException {
+        Cipher cipher = gcmCiphers.poll();
+        return cipher != null ? cipher : Cipher.getInstance(GCM_TRANSFORMATION);
+    }
+}
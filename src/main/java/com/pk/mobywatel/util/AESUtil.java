@@ -1,34 +1,28 @@
 package com.pk.mobywatel.util;
 
-import javax.crypto.Cipher;
-import javax.crypto.spec.SecretKeySpec;
-import java.util.Base64;
-
 public class AESUtil {
 
-    private static String SECRET_KEY;
+    private static volatile AESEngine ENGINE;
 
     public static void setKey(String secretKey) {
-        SECRET_KEY = secretKey;
+        setKey(secretKey, AESEngine.Mode.ECB);
+    }
+
+    public static void setKey(String secretKey, AESEngine.Mode mode) {
+        ENGINE = new AESEngine(secretKey, mode);
     }
 
     public static String encrypt(String strToEncrypt) {
-        try {
-            SecretKeySpec secretKey = new SecretKeySpec(SECRET_KEY.getBytes(), "AES");
-            Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            return Base64.getEncoder().encodeToString(cipher.doFinal(strToEncrypt.getBytes()));
+        try (ServerTiming.Scope ignored = ServerTiming.start(ServerTiming.Phase.CRYPTO)) {
+            return ENGINE.encrypt(strToEncrypt);
         } catch (Exception e) {
             throw new RuntimeException("Error while encrypting", e);
         }
     }
 
     public static String decrypt(String strToDecrypt) {
-        try {
-            SecretKeySpec secretKey = new SecretKeySpec(SECRET_KEY.getBytes(), "AES");
-            Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
-            return new String(cipher.doFinal(Base64.getDecoder().decode(strToDecrypt)));
+        try (ServerTiming.Scope ignored = ServerTiming.start(ServerTiming.Phase.CRYPTO)) {
+            return ENGINE.decrypt(strToDecrypt);
         } catch (Exception e) {
             throw new RuntimeException("Error while decrypting", e);
         }
@@ -0,0 +1,58 @@
+package com.pk.mobywatel.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// HMAC-SHA256 "blind index" dla kolumn szyfrowanych (email, PESEL): deterministyczny skrót
+// pozwala wyszukiwać po indeksie niezależnie od trybu szyfrowania samej kolumny
+public class BlindIndexUtil {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] DERIVATION_LABEL = "mobywatel-blind-index".getBytes(StandardCharsets.UTF_8);
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final BlockingQueue<Mac> MACS = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static volatile SecretKeySpec KEY;
+
+    public static void setKey(String secretKey) {
+        KEY = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        MACS.clear();
+    }
+
+    // osobny klucz do indeksu, gdy nie skonfigurowano dedykowanego: HMAC(klucz AES, etykieta)
+    public static void deriveKey(String encryptionKey) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(encryptionKey.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            KEY = new SecretKeySpec(mac.doFinal(DERIVATION_LABEL), ALGORITHM);
+            MACS.clear();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error while deriving blind index key", e);
+        }
+    }
+
+    public static String hash(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try (ServerTiming.Scope ignored = ServerTiming.start(ServerTiming.Phase.CRYPTO)) {
+            Mac mac = MACS.poll();
+            if (mac == null) {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(KEY);
+            }
+
+            byte[] digest = mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+            MACS.offer(mac);
+
+            return new String(Base64.getEncoder().encode(digest), StandardCharsets.ISO_8859_1);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error while hashing", e);
+        }
+    }
+}
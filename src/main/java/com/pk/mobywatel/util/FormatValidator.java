@@ -0,0 +1,148 @@
+package com.pk.mobywatel.util;
+
+// Jednoprzebiegowe skanery formatu emaila, hasła i PESEL-u - bez String.matches (kompilacja wzorca przy
+// każdym wywołaniu), bez backtrackingu i bez alokacji. Akceptują dokładnie te same napisy co wcześniejsze wyrażenia:
+//  email:  ^[\w-\.]+@([\w-]+\.)+[\w-]{2,4}$
+//  hasło:  ^(?=.*[A-Z])(?=.*[a-z])(?=.*\d)(?=.*[@$!%*?&])[A-Za-z\d@$!%*?&]{8,40}$
+// (równoważność sprawdza FormatValidatorFuzzTest). \w i \d to tylko ASCII, jak w java.util.regex bez flagi UNICODE.
+public final class FormatValidator {
+    public static final int PASSWORD_MIN_LENGTH = 8;
+    public static final int PASSWORD_MAX_LENGTH = 40;
+
+    private static final int EMAIL_TLD_MIN_LENGTH = 2;
+    private static final int EMAIL_TLD_MAX_LENGTH = 4;
+    private static final int PESEL_LENGTH = 11;
+    private static final int[] PESEL_WEIGHTS = {1, 3, 7, 9, 1, 3, 7, 9, 1, 3};
+
+    private FormatValidator() {
+    }
+
+    public static ValidationCode email(CharSequence email) {
+        if (email == null) {
+            return ValidationCode.MISSING;
+        }
+
+        int length = email.length();
+        int i = 0;
+
+        // część lokalna: [\w-.]+
+        while (i < length && isLocalPartChar(email.charAt(i))) {
+            i++;
+        }
+
+        if (i == 0 || (i < length && email.charAt(i) != '@')) {
+            return ValidationCode.EMAIL_LOCAL_PART;
+        }
+        if (i == length) {
+            return ValidationCode.EMAIL_MISSING_AT;
+        }
+
+        // domena: co najmniej jedna niepusta etykieta [\w-]+ zakończona kropką, potem [\w-]{2,4}
+        int labels = 0;
+        int labelLength = 0;
+
+        for (i++; i < length; i++) {
+            char c = email.charAt(i);
+
+            if (c == '.') {
+                if (labelLength == 0) {
+                    return ValidationCode.EMAIL_DOMAIN;
+                }
+                labels++;
+                labelLength = 0;
+            } else if (isWordChar(c) || c == '-') {
+                labelLength++;
+            } else {
+                return ValidationCode.EMAIL_DOMAIN;
+            }
+        }
+
+        if (labels == 0) {
+            return ValidationCode.EMAIL_DOMAIN;
+        }
+        if (labelLength < EMAIL_TLD_MIN_LENGTH || labelLength > EMAIL_TLD_MAX_LENGTH) {
+            return ValidationCode.EMAIL_TOP_LEVEL_DOMAIN;
+        }
+
+        return ValidationCode.VALID;
+    }
+
+    // min. 8 i maks. 40 znaków z [A-Za-z0-9@$!%*?&], w tym wielka i mała litera, cyfra i znak specjalny
+    public static ValidationCode password(CharSequence password) {
+        if (password == null) {
+            return ValidationCode.MISSING;
+        }
+
+        int length = password.length();
+        if (length < PASSWORD_MIN_LENGTH || length > PASSWORD_MAX_LENGTH) {
+            return ValidationCode.PASSWORD_LENGTH;
+        }
+
+        boolean upper = false, lower = false, digit = false, special = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+
+            if (c >= 'A' && c <= 'Z') upper = true;
+            else if (c >= 'a' && c <= 'z') lower = true;
+            else if (c >= '0' && c <= '9') digit = true;
+            else if (isPasswordSpecial(c)) special = true;
+            else return ValidationCode.PASSWORD_ILLEGAL_CHARACTER;
+        }
+
+        if (!upper) return ValidationCode.PASSWORD_MISSING_UPPERCASE;
+        if (!lower) return ValidationCode.PASSWORD_MISSING_LOWERCASE;
+        if (!digit) return ValidationCode.PASSWORD_MISSING_DIGIT;
+        if (!special) return ValidationCode.PASSWORD_MISSING_SPECIAL;
+
+        return ValidationCode.VALID;
+    }
+
+    // Sam format: 11 cyfr, kod miesiąca (01-12 plus 20/40/60/80 dla stuleci), dzień 01-31 i cyfra kontrolna.
+    // Zgodność z datą urodzenia i płcią sprawdza PeselValidator.
+    public static ValidationCode peselFormat(CharSequence pesel) {
+        if (pesel == null) {
+            return ValidationCode.MISSING;
+        }
+        if (pesel.length() != PESEL_LENGTH) {
+            return ValidationCode.PESEL_LENGTH;
+        }
+
+        int sum = 0;
+
+        for (int i = 0; i < PESEL_LENGTH; i++) {
+            char c = pesel.charAt(i);
+            if (c < '0' || c > '9') {
+                return ValidationCode.PESEL_NOT_DIGITS;
+            }
+            if (i < PESEL_WEIGHTS.length) {
+                sum += (c - '0') * PESEL_WEIGHTS[i];
+            }
+        }
+
+        int month = (pesel.charAt(2) - '0') * 10 + (pesel.charAt(3) - '0');
+        int day = (pesel.charAt(4) - '0') * 10 + (pesel.charAt(5) - '0');
+
+        if (month % 20 < 1 || month % 20 > 12 || day < 1 || day > 31) {
+            return ValidationCode.PESEL_DATE;
+        }
+
+        if ((10 - sum % 10) % 10 != pesel.charAt(10) - '0') {
+            return ValidationCode.PESEL_CHECKSUM;
+        }
+
+        return ValidationCode.VALID;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isWordChar(c) || c == '-' || c == '.';
+    }
+
+    private static boolean isPasswordSpecial(char c) {
+        return c == '@' || c == '$' || c == '!' || c == '%' || c == '*' || c == '?' || c == '&';
+    }
+}
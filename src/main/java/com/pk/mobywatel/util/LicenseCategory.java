@@ -1,5 +1,22 @@
 package com.pk.mobywatel.util;
 
+import java.util.Collection;
+import java.util.EnumSet;
+
+// Kolejność stałych jest częścią formatu kolumny categories_mask (bit = ordinal) - nowe kategorie dopisujemy tylko na końcu
 public enum LicenseCategory {
-    AM, A1, A2, A, B, B1, BE, C, C1, C1E, CE, D, D1, D1E, DE, T
+    AM, A1, A2, A, B, B1, BE, C, C1, C1E, CE, D, D1, D1E, DE, T;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    // EnumSet.copyOf nie przyjmuje pustej kolekcji, która nie jest EnumSetem
+    public static EnumSet<LicenseCategory> setOf(Collection<LicenseCategory> categories) {
+        EnumSet<LicenseCategory> set = EnumSet.noneOf(LicenseCategory.class);
+        if (categories != null) {
+            set.addAll(categories);
+        }
+        return set;
+    }
 }
@@ -0,0 +1,39 @@
+package com.pk.mobywatel.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Zbiór kategorii prawa jazdy zapisany jako maska bitowa w jednej kolumnie (16 kategorii mieści się w int)
+@Converter
+public class LicenseCategoryMaskConverter implements AttributeConverter<Set<LicenseCategory>, Integer> {
+    private static final LicenseCategory[] CATEGORIES = LicenseCategory.values();
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<LicenseCategory> categories) {
+        int mask = 0;
+        if (categories != null) {
+            for (LicenseCategory category : categories) {
+                mask |= category.bit();
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public Set<LicenseCategory> convertToEntityAttribute(Integer mask) {
+        EnumSet<LicenseCategory> categories = EnumSet.noneOf(LicenseCategory.class);
+        if (mask == null) {
+            return categories;
+        }
+
+        for (LicenseCategory category : CATEGORIES) {
+            if ((mask & category.bit()) != 0) {
+                categories.add(category);
+            }
+        }
+        return categories;
+    }
+}
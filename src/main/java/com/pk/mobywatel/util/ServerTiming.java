@@ -0,0 +1,115 @@
+package com.pk.mobywatel.util;
+
+// Czas requestu rozbity na fazy (nagłówek Server-Timing, ServerTimingFilter): stan w ThreadLocal wątku requestu.
+// Fazy są liczone wyłącznie - gdy w trakcie fazy zacznie się inna (np. deszyfrowanie AES w konwerterze encji
+// podczas zapytania repozytorium), zewnętrzna jest wstrzymywana, więc suma faz nie przekracza czasu requestu.
+// Poza requestem (wątki tła, testy) start() zwraca pusty zakres i nic nie mierzy.
+public final class ServerTiming {
+    public enum Phase {
+        JWT("jwt"), DB("db"), CRYPTO("crypto"), FS("fs"), HASH("hash");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<Timings> CURRENT = new ThreadLocal<>();
+    private static final Scope NOOP = () -> {
+    };
+
+    // try-with-resources: close() kończy fazę i wznawia poprzednią
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final class Timings implements Scope {
+        private final long started = System.nanoTime();
+        private final long[] nanos = new long[PHASES.length];
+        // stos wstrzymanych faz (ordinal), zagnieżdżenie jest płytkie
+        private final int[] stack = new int[16];
+        private int depth;
+        private int current = -1;
+        private long phaseStarted;
+
+        private Scope enter(Phase phase) {
+            long now = System.nanoTime();
+            if (depth == stack.length) {
+                return NOOP;
+            }
+            if (current >= 0) {
+                nanos[current] += now - phaseStarted;
+            }
+            stack[depth++] = current;
+            current = phase.ordinal();
+            phaseStarted = now;
+            return this;
+        }
+
+        @Override
+        public void close() {
+            long now = System.nanoTime();
+            nanos[current] += now - phaseStarted;
+            current = stack[--depth];
+            phaseStarted = now;
+        }
+
+        public long nanos(Phase phase) {
+            long total = nanos[phase.ordinal()];
+            return phase.ordinal() == current ? total + System.nanoTime() - phaseStarted : total;
+        }
+
+        public long totalNanos() {
+            return System.nanoTime() - started;
+        }
+
+        // np. "jwt;dur=0.412, db;dur=3.105, crypto;dur=0.051, fs;dur=0.000, hash;dur=0.000, total;dur=5.870"
+        public String header() {
+            StringBuilder header = new StringBuilder(128);
+            for (Phase phase : PHASES) {
+                appendMetric(header, phase.metricName(), nanos(phase)).append(", ");
+            }
+            return appendMetric(header, "total", totalNanos()).toString();
+        }
+
+        private static StringBuilder appendMetric(StringBuilder header, String name, long nanos) {
+            // milisekundy z trzema miejscami po przecinku, bez String.format
+            long micros = nanos / 1000;
+            long fraction = micros % 1000;
+            header.append(name).append(";dur=").append(micros / 1000).append('.');
+            if (fraction < 100) {
+                header.append(fraction < 10 ? "00" : "0");
+            }
+            return header.append(fraction);
+        }
+    }
+
+    private ServerTiming() {
+    }
+
+    public static Timings begin() {
+        Timings timings = new Timings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static Timings current() {
+        return CURRENT.get();
+    }
+
+    public static Scope start(Phase phase) {
+        Timings timings = CURRENT.get();
+        return timings == null ? NOOP : timings.enter(phase);
+    }
+}
@@ -0,0 +1,28 @@
+package com.pk.mobywatel.util;
+
+// Wynik FormatValidator - VALID albo pierwszy znaleziony powód odrzucenia
+public enum ValidationCode {
+    VALID,
+    MISSING,
+
+    EMAIL_LOCAL_PART,
+    EMAIL_MISSING_AT,
+    EMAIL_DOMAIN,
+    EMAIL_TOP_LEVEL_DOMAIN,
+
+    PASSWORD_LENGTH,
+    PASSWORD_ILLEGAL_CHARACTER,
+    PASSWORD_MISSING_UPPERCASE,
+    PASSWORD_MISSING_LOWERCASE,
+    PASSWORD_MISSING_DIGIT,
+    PASSWORD_MISSING_SPECIAL,
+
+    PESEL_LENGTH,
+    PESEL_NOT_DIGITS,
+    PESEL_DATE,
+    PESEL_CHECKSUM;
+
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
@@ -0,0 +1,204 @@
+package com.pk.mobywatel.admin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pk.mobywatel.model.Citizen;
+import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.repository.CitizenRepository;
+import com.pk.mobywatel.repository.UserRepository;
+import com.pk.mobywatel.request.LoginBody;
+import com.pk.mobywatel.util.Gender;
+import com.pk.mobywatel.util.Role;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class CitizenImportTest {
+    private static final String ADMIN_EMAIL = "import.admin@test.com";
+    private static final String RACE_PESEL = "85120345628";
+    private static final List<String> IMPORTED_PESELS = List.of("90051512340", "90051512357", "02030411115", RACE_PESEL, "76041512350");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private CitizenRepository citizenRepository;
+
+    @Autowired
+    private BCryptPasswordEncoder encoder;
+
+    private String token;
+
+    @BeforeAll
+    public void setUp() throws Exception {
+        tearDown();
+
+        transactionTemplate.execute(status -> userRepository.save(UserModel.builder()
+                .email(ADMIN_EMAIL)
+                .password(encoder.encode("Admin123!"))
+                .role(Role.ADMIN)
+                .build()));
+
+        MvcResult result = mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new LoginBody(ADMIN_EMAIL, "Admin123!"))))
+                .andReturn();
+
+        token = result.getResponse().getCookie("jwt").getValue();
+    }
+
+    @AfterAll
+    public void tearDown() {
+        transactionTemplate.execute(status -> {
+            IMPORTED_PESELS.forEach(pesel -> citizenRepository.findByPESEL(pesel).ifPresent(citizenRepository::delete));
+            userRepository.findByEmail(ADMIN_EMAIL).ifPresent(userRepository::delete);
+            userRepository.findByEmail("race.registered@test.com").ifPresent(userRepository::delete);
+            return null;
+        });
+    }
+
+    @Test
+    void csvImportReportsRejectedLinesTest() throws Exception {
+        String csv = """
+                email,firstName,lastName,birthDate,PESEL,gender
+                anna.import@test.com,Anna,Nowak,1990-05-15,90051512340,FEMALE
+                jan.import@test.com,Jan,Kowalski,1990-05-15,90051512357,MALE
+                bad-email,Ewa,Lis,1985-12-03,85120334563,FEMALE
+                ewa.import@test.com,Ewa,Lis,1985-12-03,85120334570,FEMALE
+                anna.import@test.com,Anna,Kowal,1985-12-03,85120334563,FEMALE
+                """;
+
+        mvc.perform(post("/api/admin/citizens/import")
+                        .cookie(new Cookie("jwt", token))
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.errors[0].line").value(4))
+                .andExpect(jsonPath("$.errors[0].message").value("Incorrect email."))
+                .andExpect(jsonPath("$.errors[1].line").value(5))
+                .andExpect(jsonPath("$.errors[1].message").value("Invalid pesel."))
+                .andExpect(jsonPath("$.errors[2].line").value(6))
+                .andExpect(jsonPath("$.errors[2].message").value("Email is duplicated in the import."));
+
+        assertTrue(citizenRepository.findByPESEL("90051512340").isPresent());
+        assertTrue(citizenRepository.findByPESEL("90051512357").isPresent());
+    }
+
+    @Test
+    void ndjsonImportRejectsTakenPeselTest() throws Exception {
+        String first = """
+                {"email":"piotr.import@test.com","firstName":"Piotr","lastName":"Zieliński","birthDate":"1902-03-04","PESEL":"02030411115","gender":"MALE"}
+                """;
+        String second = """
+                {"email":"piotr.other@test.com","firstName":"Piotr","lastName":"Zieliński","birthDate":"1902-03-04","PESEL":"02030411115","gender":"MALE"}
+                {not json}
+                """;
+
+        mvc.perform(post("/api/admin/citizens/import")
+                        .cookie(new Cookie("jwt", token))
+                        .contentType("application/x-ndjson")
+                        .content(first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        mvc.perform(post("/api/admin/citizens/import")
+                        .cookie(new Cookie("jwt", token))
+                        .contentType("application/x-ndjson")
+                        .content(second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("PESEL is taken."))
+                .andExpect(jsonPath("$.errors[1].message").value("Malformed line"));
+    }
+
+    @Test
+    void concurrentRegistrationFallsBackToRowByRowTest() throws Exception {
+        // rejestracja z tym samym PESEL-em między zapytaniem o zajęte PESEL-e a batch insertem
+        doAnswer(invocation -> {
+            transactionTemplate.execute(status -> {
+                UserModel user = userRepository.save(UserModel.builder()
+                        .email("race.registered@test.com")
+                        .password(encoder.encode("Testpass123!"))
+                        .role(Role.CITIZEN)
+                        .build());
+                return citizenRepository.save(Citizen.builder()
+                        .user(user)
+                        .firstName("Ewa")
+                        .lastName("Lis")
+                        .birthDate(LocalDate.of(1985, 12, 3))
+                        .PESEL(RACE_PESEL)
+                        .gender(Gender.FEMALE)
+                        .build());
+            });
+            // stan bazy widziany przez sprawdzenie, zanim rejestracja się zatwierdziła
+            return Set.of();
+        }).when(citizenRepository).findExistingPeselHashes(anyCollection());
+
+        String csv = """
+                email,firstName,lastName,birthDate,PESEL,gender
+                ewa.race@test.com,Ewa,Lis,1985-12-03,85120345628,FEMALE
+                adam.race@test.com,Adam,Wójcik,1976-04-15,76041512350,MALE
+                """;
+
+        // stub spy jest zdejmowany po teście (MockReset.AFTER)
+        mvc.perform(post("/api/admin/citizens/import")
+                        .cookie(new Cookie("jwt", token))
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Email or PESEL is taken."));
+
+        assertTrue(citizenRepository.findByPESEL("76041512350").isPresent());
+    }
+
+    @Test
+    void unsupportedFormatImportTest() throws Exception {
+        mvc.perform(post("/api/admin/citizens/import")
+                        .cookie(new Cookie("jwt", token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+}
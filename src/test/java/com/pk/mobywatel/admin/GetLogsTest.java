@@ -0,0 +1,142 @@
+package com.pk.mobywatel.admin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pk.mobywatel.request.LoginBody;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class GetLogsTest {
+    // trasa, której nie ma żaden kontroler - wpisy z logowania i samych testów nie trafiają w filtr
+    private static final String ROUTE = "/api/test/logs";
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+
+    @BeforeAll
+    public void setUp() throws Exception {
+        tearDown();
+
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO endpoint_log (log_id, user_id, access_timestamp, description, http_method, route, status_code, duration_us) " +
+                            "VALUES (endpoint_log_seq.NEXTVAL, NULL, ?, 'test', 'GET', ?, ?, 100)",
+                    Timestamp.from(START.plus(i, ChronoUnit.MINUTES)), ROUTE, i == 4 ? 500 : 200);
+        }
+
+        MvcResult result = mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new LoginBody("admin@test.com", "Admin123!"))))
+                .andReturn();
+
+        token = result.getResponse().getCookie("jwt").getValue();
+    }
+
+    @AfterAll
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM endpoint_log WHERE route = ?", ROUTE);
+    }
+
+    @Test
+    void keysetPagesTest() throws Exception {
+        JsonNode first = page(null);
+        assertEquals(2, first.get("logs").size());
+        assertEquals(START.plus(4, ChronoUnit.MINUTES).toString(), Instant.parse(first.get("logs").get(0).get("accessTimestamp").asText()).toString());
+
+        JsonNode second = page(first.get("next").asText());
+        assertEquals(2, second.get("logs").size());
+
+        JsonNode third = page(second.get("next").asText());
+        assertEquals(1, third.get("logs").size());
+        assertTrue(third.get("next").isNull());
+        assertEquals(START.toString(), Instant.parse(third.get("logs").get(0).get("accessTimestamp").asText()).toString());
+    }
+
+    @Test
+    void statusAndTimeFilterTest() throws Exception {
+        mvc.perform(get("/api/admin/logs")
+                        .cookie(new Cookie("jwt", token))
+                        .param("route", ROUTE)
+                        .param("status", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.logs.length()").value(1))
+                .andExpect(jsonPath("$.logs[0].statusCode").value(500));
+
+        mvc.perform(get("/api/admin/logs")
+                        .cookie(new Cookie("jwt", token))
+                        .param("route", ROUTE)
+                        .param("from", START.plus(1, ChronoUnit.MINUTES).toString())
+                        .param("to", START.plus(3, ChronoUnit.MINUTES).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.logs.length()").value(2));
+    }
+
+    @Test
+    void invalidCursorTest() throws Exception {
+        mvc.perform(get("/api/admin/logs")
+                        .cookie(new Cookie("jwt", token))
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ndjsonExportTest() throws Exception {
+        MvcResult result = mvc.perform(get("/api/admin/logs/export")
+                        .cookie(new Cookie("jwt", token))
+                        .param("route", ROUTE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().strip().split("\n");
+        assertEquals(5, lines.length);
+        assertEquals(ROUTE, mapper.readTree(lines[0]).get("route").asText());
+    }
+
+    private JsonNode page(String after) throws Exception {
+        MvcResult result = mvc.perform(get("/api/admin/logs")
+                        .cookie(new Cookie("jwt", token))
+                        .param("route", ROUTE)
+                        .param("size", "2")
+                        .param("after", after == null ? "" : after))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return mapper.readTree(result.getResponse().getContentAsString());
+    }
+}
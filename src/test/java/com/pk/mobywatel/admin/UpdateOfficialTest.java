@@ -88,6 +88,35 @@ public class UpdateOfficialTest {
                 .andExpect(jsonPath("$.message").value("Official account updated"));
     }
 
+    @Test
+    void changedPasswordIsNotServedFromCacheTest() throws Exception {
+        LoginBody oldCredentials = new LoginBody("test@email.com", "Test123!");
+
+        // logowanie wstawia konto do UserDetailsCache
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(oldCredentials)))
+                .andExpect(status().isOk());
+
+        OfficialBody passwordChange = new OfficialBody(1, "test@email.com", "Changed123!", null, null, null);
+
+        mvc.perform(put("/api/admin/official")
+                        .cookie(new Cookie("jwt", token.token()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(passwordChange)))
+                .andExpect(status().isOk());
+
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(oldCredentials)))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new LoginBody("test@email.com", "Changed123!"))))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void missingFieldUpdateOfficialTest() throws Exception {
         String requestBody = mapper.writeValueAsString(validBody);
@@ -0,0 +1,170 @@
+package com.pk.mobywatel.audit;
+
+import com.pk.mobywatel.service.AuditEntry;
+import com.pk.mobywatel.service.AuditSegment;
+import com.pk.mobywatel.service.AuditSegmentSink;
+import com.pk.mobywatel.service.AuditSegmentVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Segmenty audytu bez Springa: zapis z rotacją, odczyt tych samych wpisów i wykrywanie zmian w plikach.
+public class AuditSegmentTest {
+    // mały segment, żeby 200 wpisów dało kilka plików
+    private static final int SEGMENT_BYTES = 8 * 1024;
+    private static final int ENTRIES = 200;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void writtenEntriesAreReadBackInOrderTest() throws IOException {
+        List<AuditEntry> written = write(ENTRIES);
+        List<AuditEntry> read = new ArrayList<>();
+
+        List<Path> segments = AuditSegment.list(directory);
+        assertTrue(segments.size() > 1);
+        for (Path segment : segments) {
+            assertTrue(AuditSegment.scan(segment, read::add).valid());
+        }
+
+        assertEquals(written, read);
+        assertTrue(AuditSegmentVerifier.verify(directory).valid());
+        assertEquals(ENTRIES, AuditSegmentVerifier.verify(directory).records());
+    }
+
+    @Test
+    public void chainContinuesAfterRestartTest() throws IOException {
+        write(10);
+        write(10);
+
+        AuditSegmentVerifier.Result result = AuditSegmentVerifier.verify(directory);
+        assertTrue(result.valid(), result.problems().toString());
+        assertEquals(20, result.records());
+    }
+
+    @Test
+    public void modifiedRecordIsDetectedTest() throws IOException {
+        write(ENTRIES);
+        Path segment = AuditSegment.list(directory).get(1);
+
+        // status 200 -> 500 w pierwszym rekordzie, bez przeliczania hasha
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int record = AuditSegment.HEADER_LENGTH + 4;
+            for (int i = record; i < record + 200; i++) {
+                if (buffer.getInt(i) == 200) {
+                    buffer.putInt(i, 500);
+                    break;
+                }
+            }
+        }
+
+        AuditSegmentVerifier.Result result = AuditSegmentVerifier.verify(directory);
+        assertFalse(result.valid());
+        assertTrue(result.problems().get(0).contains("hash mismatch at record 0"), result.problems().toString());
+    }
+
+    @Test
+    public void removedSegmentIsDetectedTest() throws IOException {
+        write(ENTRIES);
+        Files.delete(AuditSegment.list(directory).get(1));
+
+        AuditSegmentVerifier.Result result = AuditSegmentVerifier.verify(directory);
+        assertFalse(result.valid());
+        assertTrue(result.problems().stream().anyMatch(problem -> problem.contains("expected segment 1")), result.problems().toString());
+    }
+
+    @Test
+    public void truncatedSegmentIsDetectedTest() throws IOException {
+        write(ENTRIES);
+        Path segment = AuditSegment.list(directory).get(0);
+
+        // ostatni rekord usunięty w całości - sam segment jest spójny, ale następny nie kontynuuje jego łańcucha
+        AuditSegment.Scan scan = AuditSegment.scan(segment, null);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(lastRecordOffset(segment, scan.records()));
+        }
+
+        AuditSegmentVerifier.Result result = AuditSegmentVerifier.verify(directory);
+        assertFalse(result.valid());
+        assertTrue(result.problems().get(0).contains("does not continue the chain"), result.problems().toString());
+    }
+
+    @Test
+    public void rotationLeavesSealingToMaintainTest() throws IOException {
+        AuditSegmentSink sink = new AuditSegmentSink(directory.toString(), SEGMENT_BYTES, 60, new SimpleMeterRegistry());
+        sink.start();
+
+        for (int i = 0; i < ENTRIES; i++) {
+            sink.submit(entry(i));
+        }
+
+        // submit() tylko podmienia segment - stare czekają jako .open na maintain()
+        assertTrue(AuditSegment.list(directory, AuditSegment.OPEN).size() > 1);
+        assertTrue(AuditSegment.list(directory, AuditSegment.SEALED).isEmpty());
+
+        sink.maintain();
+        assertEquals(1, AuditSegment.list(directory, AuditSegment.OPEN).size());
+        assertFalse(AuditSegment.list(directory, AuditSegment.SEALED).isEmpty());
+
+        sink.shutdown();
+        assertEquals(ENTRIES, AuditSegmentVerifier.verify(directory).records());
+    }
+
+    private List<AuditEntry> write(int count) throws IOException {
+        AuditSegmentSink sink = new AuditSegmentSink(directory.toString(), SEGMENT_BYTES, 60, new SimpleMeterRegistry());
+        List<AuditEntry> entries = new ArrayList<>();
+        sink.start();
+
+        for (int i = 0; i < count; i++) {
+            AuditEntry entry = entry(i);
+            sink.submit(entry);
+            entries.add(entry);
+
+            // okresowy force jak z harmonogramu, w trakcie zapisu
+            if (i % 50 == 49) {
+                sink.maintain();
+            }
+        }
+
+        sink.shutdown();
+        return entries;
+    }
+
+    private static AuditEntry entry(int i) {
+        return new AuditEntry(
+                i % 7 == 0 ? null : i,
+                new Timestamp(1_700_000_000_000L + i),
+                "GET",
+                "/api/citizen/documents",
+                "http://localhost/api/citizen/documents?page=" + i,
+                200,
+                1000 + i,
+                i % 5 == 0 ? "org.apache.coyote.BadRequestException" : null,
+                i % 5 == 0 ? "Zły PESEL " + i : null);
+    }
+
+    private static long lastRecordOffset(Path segment, long records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int offset = AuditSegment.HEADER_LENGTH;
+        for (long i = 0; i < records - 1; i++) {
+            offset += 4 + buffer.getInt(offset) + AuditSegment.HASH_LENGTH;
+        }
+        return offset;
+    }
+}
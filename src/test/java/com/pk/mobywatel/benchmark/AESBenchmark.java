@@ -0,0 +1,67 @@
+package com.pk.mobywatel.benchmark;
+
+import com.pk.mobywatel.util.AESUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class AESBenchmark {
+    private static final String SECRET_KEY = "0123456789abcdef";
+
+    @Param({"jan.kowalski@email.com", "85051546998"})
+    private String plain;
+
+    private String encrypted;
+
+    @Setup
+    public void setUp() {
+        AESUtil.setKey(SECRET_KEY);
+        encrypted = AESUtil.encrypt(plain);
+    }
+
+    @Benchmark
+    public String legacyEncrypt() throws Exception {
+        SecretKeySpec secretKey = new SecretKeySpec(SECRET_KEY.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+        return Base64.getEncoder().encodeToString(cipher.doFinal(plain.getBytes()));
+    }
+
+    @Benchmark
+    public String pooledEncrypt() {
+        return AESUtil.encrypt(plain);
+    }
+
+    // odczyt encji to głównie deszyfrowanie (EncryptionConverter.convertToEntityAttribute)
+    @Benchmark
+    public String legacyDecrypt() throws Exception {
+        SecretKeySpec secretKey = new SecretKeySpec(SECRET_KEY.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE, secretKey);
+        return new String(cipher.doFinal(Base64.getDecoder().decode(encrypted)));
+    }
+
+    @Benchmark
+    public String pooledDecrypt() {
+        return AESUtil.decrypt(encrypted);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AESBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
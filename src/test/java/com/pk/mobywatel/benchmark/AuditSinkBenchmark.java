@@ -0,0 +1,84 @@
+package com.pk.mobywatel.benchmark;
+
+import com.pk.mobywatel.service.AuditEntry;
+import com.pk.mobywatel.service.AuditSegment;
+import com.pk.mobywatel.service.AuditSegmentSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class AuditSinkBenchmark {
+    private static final AuditEntry ENTRY = new AuditEntry(42, new Timestamp(1_700_000_000_000L), "GET",
+            "/api/citizen/documents", "http://localhost:8080/api/citizen/documents", 200, 1250, null, null);
+
+    private Path directory;
+    private AuditSegmentSink sink;
+    private FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(64 * 1024);
+    private final MessageDigest digest = AuditSegment.sha256();
+    private byte[] lastHash = AuditSegment.GENESIS;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit-benchmark");
+        sink = new AuditSegmentSink(directory.resolve("segments").toString(), 64 * 1024 * 1024, 60, new SimpleMeterRegistry());
+        sink.start();
+        channel = FileChannel.open(directory.resolve("append.log"), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sink.shutdown();
+        channel.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // ten sam rekord z łańcuchem hashy, ale zapisywany wywołaniem write (syscall na każdy wpis)
+    @Benchmark
+    public synchronized int channelAppend() throws IOException {
+        record.clear();
+        record.putInt(0);
+        AuditSegment.encode(ENTRY, record);
+        int length = record.position() - 4;
+        record.putInt(0, length);
+        lastHash = AuditSegment.chain(digest, lastHash, record, 0, 4 + length);
+        record.put(lastHash).flip();
+        return channel.write(record);
+    }
+
+    @Benchmark
+    public void segmentSink() {
+        sink.submit(ENTRY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuditSinkBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
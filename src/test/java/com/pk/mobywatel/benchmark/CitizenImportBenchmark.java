@@ -0,0 +1,142 @@
+package com.pk.mobywatel.benchmark;
+
+import com.pk.mobywatel.MobywatelApplication;
+import com.pk.mobywatel.model.Citizen;
+import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.repository.CitizenRepository;
+import com.pk.mobywatel.util.Gender;
+import com.pk.mobywatel.util.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Import 100k obywateli (UserModel + Citizen, czyli 200k insertów) przez JPA przy wyłączonym (batchSize = 1,
+// jeden round trip na wiersz - tak jak przy IDENTITY) i włączonym batchowaniu JDBC na generatorach sekwencyjnych.
+// Wymaga skonfigurowanej bazy (application.properties jak przy testach). Wynik to czas jednego importu;
+// wiersze/s = citizens / czas. Zaimportowane wiersze są usuwane po każdej iteracji.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CitizenImportBenchmark {
+    // hash BCrypt liczony raz - benchmark mierzy zapis, nie haszowanie haseł
+    private static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1aYhR0o6F8x0sS1V5bW6Qx2";
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"100000"})
+    private int citizens;
+
+    @Param({"1000"})
+    private int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private CitizenRepository citizenRepository;
+    private EntityManager entityManager;
+    private JdbcTemplate jdbcTemplate;
+
+    private long lastUserID;
+    private long lastCitizenID;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MobywatelApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "app.blind-index.backfill.enabled=false",
+                        "app.files.index-migration.enabled=false")
+                .run();
+
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        citizenRepository = context.getBean(CitizenRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void markExistingRows() {
+        lastUserID = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(user_id), 0) FROM user_model", Long.class);
+        lastCitizenID = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(citizen_id), 0) FROM citizen", Long.class);
+        run++;
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteImportedRows() {
+        jdbcTemplate.update("DELETE FROM citizen WHERE citizen_id > ?", lastCitizenID);
+        jdbcTemplate.update("DELETE FROM user_model WHERE user_id > ?", lastUserID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int importCitizens() {
+        int imported = 0;
+
+        while (imported < citizens) {
+            final int from = imported;
+            final int to = Math.min(citizens, imported + chunkSize);
+
+            // porcja w osobnej transakcji; flush + clear, żeby kontekst utrwalania nie rósł przez cały import
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Citizen> chunk = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    chunk.add(citizen(i));
+                }
+                citizenRepository.saveAll(chunk);
+                entityManager.flush();
+                entityManager.clear();
+            });
+
+            imported = to;
+        }
+
+        return imported;
+    }
+
+    private Citizen citizen(int i) {
+        // unikalne w obrębie przebiegu email i PESEL (indeksy unikalne na blind indeksach)
+        String suffix = run + "-" + i;
+        UserModel user = UserModel.builder()
+                .email("import-" + suffix + "@benchmark.pl")
+                .password(PASSWORD_HASH)
+                .role(Role.CITIZEN)
+                .build();
+
+        return Citizen.builder()
+                .user(user)
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .birthDate(LocalDate.of(1990, 1, 1).plusDays(i % 10000))
+                .PESEL(String.format("%02d%09d", run % 100, i))
+                .gender(i % 2 == 0 ? Gender.MALE : Gender.FEMALE)
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CitizenImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
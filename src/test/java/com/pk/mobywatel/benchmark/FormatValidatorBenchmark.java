@@ -0,0 +1,65 @@
+package com.pk.mobywatel.benchmark;
+
+import com.pk.mobywatel.util.FormatValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class FormatValidatorBenchmark {
+    private static final String EMAIL_REGEX = "^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$";
+    private static final String PASSWORD_REGEX = "^(?=.*[A-Z])(?=.*[a-z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,40}$";
+    private static final Pattern EMAIL = Pattern.compile(EMAIL_REGEX);
+    private static final Pattern PASSWORD = Pattern.compile(PASSWORD_REGEX);
+
+    // poprawne dane i najgorszy przypadek dla lookaheadów (długie hasło bez znaku specjalnego)
+    @Param({"jan.kowalski@email.com|Testpass123!", "a.very.long.local-part_name@sub.domain.example.com|Abcdefghijklmnopqrstuvwxyz0123456789ABCD"})
+    private String input;
+
+    private String email;
+    private String password;
+
+    @Setup
+    public void setUp() {
+        int separator = input.indexOf('|');
+        email = input.substring(0, separator);
+        password = input.substring(separator + 1);
+    }
+
+    // poprzednia implementacja DataValidator: String.matches kompiluje wzorzec przy każdym wywołaniu
+    @Benchmark
+    public boolean stringMatches() {
+        return email.matches(EMAIL_REGEX) & password.matches(PASSWORD_REGEX);
+    }
+
+    @Benchmark
+    public boolean precompiledPattern() {
+        return EMAIL.matcher(email).matches() & PASSWORD.matcher(password).matches();
+    }
+
+    @Benchmark
+    public boolean scanner() {
+        return FormatValidator.email(email).isValid() & FormatValidator.password(password).isValid();
+    }
+
+    @Benchmark
+    public boolean peselScanner() {
+        return FormatValidator.peselFormat("90051512340").isValid();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FormatValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.pk.mobywatel.benchmark;
+
+import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.service.JwtService;
+import com.pk.mobywatel.service.VerifiedToken;
+import com.pk.mobywatel.util.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+    private static final String SECRET_KEY = "benchmark-secret-key-benchmark-secret-key-0123456789";
+
+    private JwtService jwtService;
+    private UserModel user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRET_KEY);
+        jwtService.init();
+
+        user = UserModel.builder()
+                .userID(1)
+                .email("jan.kowalski@email.com")
+                .password("Password123!")
+                .role(Role.CITIZEN)
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    // Poprzednia ścieżka: filtr (extractUsername + isTokenValid) i serwis (extractUsername),
+    // każdy parse buduje od nowa klucz HMAC i parser
+    @Benchmark
+    public boolean legacyRequest() {
+        String username = legacyParse(token).getSubject();
+        boolean valid = username.equals(user.getUsername())
+                && legacyParse(token).getSubject().equals(user.getUsername())
+                && !legacyParse(token).getExpiration().before(new Date());
+        return valid && legacyParse(token).getSubject() != null;
+    }
+
+    // Bez kontekstu requestu każde verify parsuje token - to górne ograniczenie kosztu nowej ścieżki
+    @Benchmark
+    public boolean verifiedRequest() {
+        VerifiedToken verified = jwtService.verify(token);
+        return jwtService.isTokenValid(verified, user) && verified.subject() != null;
+    }
+
+    private Claims legacyParse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,225 @@
+package com.pk.mobywatel.citizen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pk.mobywatel.model.*;
+import com.pk.mobywatel.repository.CitizenRepository;
+import com.pk.mobywatel.repository.DocumentRepository;
+import com.pk.mobywatel.repository.OfficialRepository;
+import com.pk.mobywatel.repository.UserRepository;
+import com.pk.mobywatel.request.LoginBody;
+import com.pk.mobywatel.util.Gender;
+import com.pk.mobywatel.util.LicenseCategory;
+import com.pk.mobywatel.util.Role;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Liczba zapytań panelu dokumentów nie może rosnąć z liczbą dokumentów (N+1 na kategoriach praw jazdy).
+// Liczone są tylko zapytania z wątku testu (MockMvc wykonuje request w nim), nie globalne statystyki
+// SessionFactory - te łapały też zadania w tle, np. odświeżanie unieważnień tokenów.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.pk.mobywatel.citizen.GetDocumentsStatementCountTest$RequestThreadStatements")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class GetDocumentsStatementCountTest {
+    // citizenID z tokenu + dokumenty z podtypami (kategorie praw jazdy są kolumną categories_mask)
+    private static final long EXPECTED_STATEMENTS = 2;
+    private static final int ADDITIONAL_LICENSES = 20;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CitizenRepository citizenRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OfficialRepository officialRepository;
+
+    @Autowired
+    private BCryptPasswordEncoder encoder;
+
+    private String token;
+    private Citizen citizen;
+    private Official official;
+
+    // instancję tworzy Hibernate, stan jest statyczny; zlicza zapytania przygotowane w wątku wskazanym przez start()
+    public static class RequestThreadStatements implements StatementInspector {
+        private static final AtomicLong STATEMENTS = new AtomicLong();
+        private static volatile Thread counted;
+
+        static void start() {
+            STATEMENTS.set(0);
+            counted = Thread.currentThread();
+        }
+
+        static void stop() {
+            counted = null;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == counted) {
+                STATEMENTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+
+    @BeforeAll
+    public void setUp() throws Exception {
+        UserModel citizenUser = UserModel.builder()
+                .email("test@gmail.com")
+                .password(encoder.encode("Testpass123!"))
+                .role(Role.CITIZEN)
+                .build();
+
+        UserModel officialUser = UserModel.builder()
+                .email("official@test.com")
+                .password(encoder.encode("Testofficial123!"))
+                .role(Role.OFFICIAL)
+                .build();
+
+        citizen = Citizen.builder()
+                .user(citizenUser)
+                .firstName("Test")
+                .lastName("Testowy")
+                .birthDate(LocalDate.of(1990, 3, 15))
+                .PESEL("90051512340")
+                .gender(Gender.FEMALE)
+                .build();
+
+        official = Official.builder()
+                .user(officialUser)
+                .firstName("Testofficial")
+                .lastName("Testowyofficial")
+                .position("Manager")
+                .build();
+
+        IdentityCard identityCard = IdentityCard.builder()
+                .citizen(citizen)
+                .issueDate(LocalDate.of(2018, 3, 15))
+                .expirationDate(LocalDate.of(2028, 3, 15))
+                .issueAuthority(official)
+                .lost(false)
+                .citizenship("Polish")
+                .build();
+
+        transactionTemplate.execute(status -> {
+            userRepository.deleteAll();
+            officialRepository.deleteAll();
+            citizenRepository.deleteAll();
+            documentRepository.deleteAll();
+
+            userRepository.save(citizenUser);
+            userRepository.save(officialUser);
+            officialRepository.save(official);
+            citizenRepository.save(citizen);
+            documentRepository.save(identityCard);
+            documentRepository.saveAll(licenses(1));
+
+            return null;
+        });
+
+        MvcResult result = mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new LoginBody("test@gmail.com", "Testpass123!"))))
+                .andReturn();
+
+        token = result.getResponse().getCookie("jwt").getValue();
+    }
+
+    @AfterAll
+    public void tearDown() {
+        transactionTemplate.execute(status -> {
+            userRepository.deleteAll();
+            officialRepository.deleteAll();
+            citizenRepository.deleteAll();
+            documentRepository.deleteAll();
+
+            return null;
+        });
+    }
+
+    @Test
+    void documentsDashboardUsesFixedStatementCountTest() throws Exception {
+        long fewDocuments = countStatements(2);
+
+        transactionTemplate.execute(status -> documentRepository.saveAll(licenses(ADDITIONAL_LICENSES)));
+
+        long manyDocuments = countStatements(2 + ADDITIONAL_LICENSES);
+
+        assertEquals(EXPECTED_STATEMENTS, fewDocuments);
+        assertEquals(fewDocuments, manyDocuments);
+    }
+
+    private long countStatements(int expectedDocuments) throws Exception {
+        RequestThreadStatements.start();
+
+        try {
+            mvc.perform(get("/api/citizen/docs")
+                            .cookie(new Cookie("jwt", token))
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(expectedDocuments))
+                    .andExpect(jsonPath("$[1].categories.length()").value(2));
+        } finally {
+            RequestThreadStatements.stop();
+        }
+
+        return RequestThreadStatements.STATEMENTS.get();
+    }
+
+    private List<DriverLicense> licenses(int count) {
+        List<DriverLicense> licenses = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            licenses.add(DriverLicense.builder()
+                    .citizen(citizen)
+                    .issueDate(LocalDate.of(2019, 1, 10))
+                    .expirationDate(LocalDate.of(2034, 1, 10))
+                    .issueAuthority(official)
+                    .lost(false)
+                    .categories(EnumSet.of(LicenseCategory.B, LicenseCategory.A))
+                    .build());
+        }
+
+        return licenses;
+    }
+}
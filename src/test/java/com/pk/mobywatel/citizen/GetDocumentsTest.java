@@ -10,6 +10,8 @@ import com.pk.mobywatel.request.LoginBody;
 import com.pk.mobywatel.request.ValidationRequest;
 import com.pk.mobywatel.util.Gender;
 import com.pk.mobywatel.util.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -28,9 +30,13 @@ import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDate;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.server-timing.header.enabled=true")
 @AutoConfigureMockMvc
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
@@ -59,6 +65,9 @@ public class GetDocumentsTest {
     @Autowired
     private BCryptPasswordEncoder encoder;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private String token;
 
     @BeforeAll
@@ -174,4 +183,23 @@ public class GetDocumentsTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void serverTimingGetDocumentsTest() throws Exception {
+        mvc.perform(get("/api/citizen/docs")
+                        .param("citizenID", "1")
+                        .cookie(new Cookie("jwt", token))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", containsString("jwt;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("db;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+
+        Timer latency = meterRegistry.find("endpoint.latency")
+                .tag("controller", "CitizenController")
+                .tag("method", "getCitizenDocuments")
+                .timer();
+        assertNotNull(latency);
+        assertTrue(latency.count() > 0);
+    }
 }
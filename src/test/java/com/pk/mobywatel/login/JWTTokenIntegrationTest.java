@@ -18,7 +18,9 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -123,4 +125,27 @@ public class JWTTokenIntegrationTest {
                 .cookie(new Cookie("jwt", null)))
                 .andExpect(status().isInternalServerError());
     }
+
+    @Test
+    public void validCookieCheckTest() throws Exception {
+        mvc.perform(get("/api/auth/check")
+                .cookie(new Cookie("jwt", token.token())))
+                .andExpect(status().isNoContent())
+                .andExpect(header().exists("X-User-Id"))
+                .andExpect(header().string("X-User-Roles", "ROLE_CITIZEN"));
+    }
+
+    @Test
+    public void invalidCookieCheckTest() throws Exception {
+        mvc.perform(get("/api/auth/check")
+                .cookie(new Cookie("jwt", "invalid-token")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist("X-User-Id"));
+    }
+
+    @Test
+    public void missingCookieCheckTest() throws Exception {
+        mvc.perform(get("/api/auth/check"))
+                .andExpect(status().isUnauthorized());
+    }
 }
@@ -0,0 +1,153 @@
+package com.pk.mobywatel.login;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pk.mobywatel.model.Citizen;
+import com.pk.mobywatel.model.Official;
+import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.repository.CitizenRepository;
+import com.pk.mobywatel.repository.OfficialRepository;
+import com.pk.mobywatel.repository.UserRepository;
+import com.pk.mobywatel.request.CitizenBody;
+import com.pk.mobywatel.request.LoginBody;
+import com.pk.mobywatel.util.Gender;
+import com.pk.mobywatel.util.Role;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class TokenRevocationTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CitizenRepository citizenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OfficialRepository officialRepository;
+
+    @Autowired
+    private BCryptPasswordEncoder encoder;
+
+    private Integer citizenID;
+
+    @BeforeAll
+    public void setUp() {
+        UserModel citizenUser = UserModel.builder()
+                .email("revoked@gmail.com")
+                .password(encoder.encode("Testpass123!"))
+                .role(Role.CITIZEN)
+                .build();
+
+        UserModel officialUser = UserModel.builder()
+                .email("official@test.com")
+                .password(encoder.encode("Testofficial123!"))
+                .role(Role.OFFICIAL)
+                .build();
+
+        Citizen citizen = Citizen.builder()
+                .user(citizenUser)
+                .firstName("Test")
+                .lastName("Testowy")
+                .birthDate(LocalDate.of(1990, 5, 15))
+                .PESEL("90051512340")
+                .gender(Gender.FEMALE)
+                .build();
+
+        Official official = Official.builder()
+                .user(officialUser)
+                .firstName("Testofficial")
+                .lastName("Testowyofficial")
+                .position("Manager")
+                .build();
+
+        transactionTemplate.execute(status -> {
+            userRepository.deleteAll();
+            officialRepository.deleteAll();
+            citizenRepository.deleteAll();
+
+            userRepository.save(citizenUser);
+            userRepository.save(officialUser);
+            officialRepository.save(official);
+            citizenRepository.save(citizen);
+
+            return null;
+        });
+
+        citizenID = citizen.getCitizenID();
+    }
+
+    @AfterAll
+    public void tearDown() {
+        transactionTemplate.execute(status -> {
+            userRepository.deleteAll();
+            officialRepository.deleteAll();
+            citizenRepository.deleteAll();
+
+            return null;
+        });
+    }
+
+    @Test
+    void passwordChangeRevokesIssuedTokens() throws Exception {
+        String citizenToken = login("revoked@gmail.com", "Testpass123!");
+        String officialToken = login("official@test.com", "Testofficial123!");
+
+        mvc.perform(get("/api/citizen/personalData")
+                        .cookie(new Cookie("jwt", citizenToken)))
+                .andExpect(status().isOk());
+
+        CitizenBody body = new CitizenBody(citizenID, null, "Newpass123!", null, null, null, null, null);
+
+        mvc.perform(put("/api/official/citizen")
+                        .cookie(new Cookie("jwt", officialToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(body)))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/api/citizen/personalData")
+                        .cookie(new Cookie("jwt", citizenToken)))
+                .andExpect(status().is4xxClientError());
+
+        mvc.perform(get("/api/citizen/personalData")
+                        .cookie(new Cookie("jwt", login("revoked@gmail.com", "Newpass123!"))))
+                .andExpect(status().isOk());
+    }
+
+    private String login(String email, String password) throws Exception {
+        MvcResult result = mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new LoginBody(email, password))))
+                .andReturn();
+
+        return result.getResponse().getCookie("jwt").getValue();
+    }
+}
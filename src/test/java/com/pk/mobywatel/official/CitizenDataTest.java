@@ -1,5 +1,6 @@
 package com.pk.mobywatel.official;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pk.mobywatel.model.Citizen;
 import com.pk.mobywatel.model.Official;
@@ -29,6 +30,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDate;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -151,6 +153,47 @@ public class CitizenDataTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getCitizensPageTest() throws Exception {
+        MvcResult firstPage = mvc.perform(get("/api/official/citizens")
+                        .param("size", "1")
+                        .cookie(new Cookie("jwt", token))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.citizens.length()").value(1))
+                .andExpect(jsonPath("$.citizens[0].email").exists())
+                .andExpect(jsonPath("$.next").isNumber())
+                .andReturn();
+
+        JsonNode first = mapper.readTree(firstPage.getResponse().getContentAsString());
+        int firstID = first.get("citizens").get(0).get("citizenID").asInt();
+        int next = first.get("next").asInt();
+        Assertions.assertEquals(firstID, next);
+
+        // druga strona (after = next): kolejny obywatel, z wyższym ID
+        MvcResult secondPage = mvc.perform(get("/api/official/citizens")
+                        .param("size", "1")
+                        .param("after", Integer.toString(next))
+                        .cookie(new Cookie("jwt", token))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.citizens.length()").value(1))
+                .andReturn();
+
+        JsonNode second = mapper.readTree(secondPage.getResponse().getContentAsString());
+        int secondID = second.get("citizens").get(0).get("citizenID").asInt();
+        Assertions.assertTrue(secondID > firstID);
+    }
+
+    @Test
+    void invalidGetCitizensPageSizeTest() throws Exception {
+        mvc.perform(get("/api/official/citizens")
+                        .param("size", "0")
+                        .cookie(new Cookie("jwt", token))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void validGetCitizenByIDorPESELTest() throws Exception {
         mvc.perform(get("/api/official/citizen")
@@ -0,0 +1,230 @@
+package com.pk.mobywatel.official;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pk.mobywatel.model.Citizen;
+import com.pk.mobywatel.model.Official;
+import com.pk.mobywatel.model.PersonalDataUpdateRequest;
+import com.pk.mobywatel.model.UserModel;
+import com.pk.mobywatel.repository.CitizenRepository;
+import com.pk.mobywatel.repository.OfficialRepository;
+import com.pk.mobywatel.repository.PersonalDataUpdateRequestRepository;
+import com.pk.mobywatel.repository.UserRepository;
+import com.pk.mobywatel.request.LoginBody;
+import com.pk.mobywatel.util.Gender;
+import com.pk.mobywatel.util.Role;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Generuje rosnącą historię przetworzonych wniosków i sprawdza, że czas pobrania kolejki oczekujących się nie zmienia.
+// Pełny pomiar: mvn test -Dtest=PendingRequestsScalingTest -Dpending.history.levels=10000,100000,1000000,3000000
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class PendingRequestsScalingTest {
+    private static final int[] HISTORY_LEVELS = Arrays.stream(System.getProperty("pending.history.levels", "1000,10000,100000").split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .toArray();
+    private static final int PENDING_REQUESTS = 20;
+    private static final int INSERT_BATCH_SIZE = 5000;
+    private static final int WARMUP = 5;
+    private static final int SAMPLES = 21;
+    // tolerancja na szum pomiaru przy małych czasach
+    private static final long SLACK_NANOS = 20_000_000L;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CitizenRepository citizenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OfficialRepository officialRepository;
+
+    @Autowired
+    private PersonalDataUpdateRequestRepository personalDataUpdateRequestRepository;
+
+    @Autowired
+    private BCryptPasswordEncoder encoder;
+
+    private String token;
+    private Integer citizenID;
+
+    @BeforeAll
+    public void setUp() throws Exception {
+        UserModel citizenUser = UserModel.builder()
+                .email("history@gmail.com")
+                .password(encoder.encode("Testpass123!"))
+                .role(Role.CITIZEN)
+                .build();
+
+        UserModel officialUser = UserModel.builder()
+                .email("official@test.com")
+                .password(encoder.encode("Testofficial123!"))
+                .role(Role.OFFICIAL)
+                .build();
+
+        Citizen citizen = Citizen.builder()
+                .user(citizenUser)
+                .firstName("Test")
+                .lastName("Testowy")
+                .birthDate(LocalDate.of(1990, 5, 15))
+                .PESEL("90051512357")
+                .gender(Gender.MALE)
+                .build();
+
+        Official official = Official.builder()
+                .user(officialUser)
+                .firstName("Testofficial")
+                .lastName("Testowyofficial")
+                .position("Manager")
+                .build();
+
+        List<PersonalDataUpdateRequest> pending = new ArrayList<>();
+        for (int i = 0; i < PENDING_REQUESTS; i++) {
+            pending.add(PersonalDataUpdateRequest.builder()
+                    .citizen(citizen)
+                    .requestedFirstName("Oczekujacy" + i)
+                    .requestedLastName("Testowy")
+                    .approved(false)
+                    .processed(false)
+                    .requestDate(LocalDate.now())
+                    .build());
+        }
+
+        transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM personal_data_update_request");
+            userRepository.deleteAll();
+            officialRepository.deleteAll();
+            citizenRepository.deleteAll();
+
+            userRepository.save(citizenUser);
+            userRepository.save(officialUser);
+            officialRepository.save(official);
+            citizenRepository.save(citizen);
+            personalDataUpdateRequestRepository.saveAll(pending);
+
+            return null;
+        });
+
+        citizenID = citizen.getCitizenID();
+
+        MvcResult result = mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new LoginBody("official@test.com", "Testofficial123!"))))
+                .andReturn();
+
+        token = result.getResponse().getCookie("jwt").getValue();
+    }
+
+    @AfterAll
+    public void tearDown() {
+        transactionTemplate.execute(status -> {
+            // deleteAll() z repozytorium ładowałby całą historię do pamięci
+            jdbcTemplate.update("DELETE FROM personal_data_update_request");
+            userRepository.deleteAll();
+            officialRepository.deleteAll();
+            citizenRepository.deleteAll();
+
+            return null;
+        });
+    }
+
+    @Test
+    void pendingQueueTimeDoesNotGrowWithProcessedHistory() throws Exception {
+        long[] medians = new long[HISTORY_LEVELS.length];
+        int inserted = 0;
+
+        for (int i = 0; i < HISTORY_LEVELS.length; i++) {
+            insertProcessedHistory(HISTORY_LEVELS[i] - inserted);
+            inserted = HISTORY_LEVELS[i];
+
+            medians[i] = medianResponseNanos();
+            System.out.println("Processed history: " + inserted + ", pending queue median: " + medians[i] / 1000 + " us");
+        }
+
+        long baseline = medians[0];
+        long largest = medians[medians.length - 1];
+        assertTrue(largest <= baseline * 3 + SLACK_NANOS,
+                "Pending queue response time grew from " + baseline / 1000 + " us to " + largest / 1000
+                        + " us with " + inserted + " processed requests");
+    }
+
+    private void insertProcessedHistory(int count) {
+        Date requestDate = Date.valueOf(LocalDate.now().minusYears(1));
+
+        for (int offset = 0; offset < count; offset += INSERT_BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (int i = offset; i < Math.min(count, offset + INSERT_BATCH_SIZE); i++) {
+                batch.add(new Object[]{citizenID, "Historia" + i, "Testowy", i % 2 == 0, true, requestDate});
+            }
+
+            jdbcTemplate.batchUpdate("INSERT INTO personal_data_update_request " +
+                    "(request_id, citizen_id, requested_first_name, requested_last_name, approved, processed, request_date) " +
+                    "VALUES (personal_data_update_request_seq.NEXTVAL, ?, ?, ?, ?, ?, ?)", batch);
+        }
+    }
+
+    private long medianResponseNanos() throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            fetchPendingQueue();
+        }
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            fetchPendingQueue();
+            samples[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    private void fetchPendingQueue() throws Exception {
+        mvc.perform(get("/api/official/citizen/personalData/requests")
+                        .cookie(new Cookie("jwt", token))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requests.length()").value(PENDING_REQUESTS))
+                .andExpect(jsonPath("$.next").isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+package com.pk.mobywatel.validation;
+
+import com.pk.mobywatel.util.FormatValidator;
+import com.pk.mobywatel.util.ValidationCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Skanery FormatValidator muszą akceptować dokładnie to samo co wyrażenia używane wcześniej w DataValidator.
+// Losowe napisy z alfabetu skupionego na znakach granicznych + mutacje poprawnych przykładów (stałe ziarno).
+public class FormatValidatorFuzzTest {
+    private static final Pattern EMAIL = Pattern.compile("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$");
+    private static final Pattern PASSWORD = Pattern.compile("^(?=.*[A-Z])(?=.*[a-z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,40}$");
+
+    private static final String ALPHABET = "aZ09_-.@$!%*?&#+ \tąÄ٣\n";
+    private static final int ITERATIONS = 200_000;
+
+    private static final List<String> VALID_EMAILS = List.of("jan.kowalski@email.com", "a@b.cd", "x_y-z@sub.domain-1.info", "admin@test.com");
+    private static final List<String> VALID_PASSWORDS = List.of("Admin123!", "Testpass123!", "aB3$aB3$", "Zz9&Zz9&Zz9&Zz9&Zz9&Zz9&Zz9&Zz9&Zz9&Zz9&");
+
+    @Test
+    public void emailMatchesRegexTest() {
+        fuzz(EMAIL, FormatValidator::email, VALID_EMAILS, 1);
+    }
+
+    @Test
+    public void passwordMatchesRegexTest() {
+        fuzz(PASSWORD, FormatValidator::password, VALID_PASSWORDS, 2);
+    }
+
+    @Test
+    public void peselFormatTest() {
+        assertEquals(ValidationCode.VALID, FormatValidator.peselFormat("90051512340"));
+        assertEquals(ValidationCode.VALID, FormatValidator.peselFormat("02030411115"));
+        assertEquals(ValidationCode.PESEL_CHECKSUM, FormatValidator.peselFormat("90051512348"));
+        assertEquals(ValidationCode.PESEL_LENGTH, FormatValidator.peselFormat("9005151234"));
+        assertEquals(ValidationCode.PESEL_NOT_DIGITS, FormatValidator.peselFormat("9005151234a"));
+        assertEquals(ValidationCode.PESEL_DATE, FormatValidator.peselFormat("90131512340"));
+        assertEquals(ValidationCode.MISSING, FormatValidator.peselFormat(null));
+    }
+
+    @Test
+    public void errorCodesTest() {
+        assertEquals(ValidationCode.EMAIL_LOCAL_PART, FormatValidator.email("@email.com"));
+        assertEquals(ValidationCode.EMAIL_MISSING_AT, FormatValidator.email("jan.kowalski"));
+        assertEquals(ValidationCode.EMAIL_DOMAIN, FormatValidator.email("jan@email"));
+        assertEquals(ValidationCode.EMAIL_TOP_LEVEL_DOMAIN, FormatValidator.email("jan@email.museum"));
+        assertEquals(ValidationCode.PASSWORD_LENGTH, FormatValidator.password("aB3$"));
+        assertEquals(ValidationCode.PASSWORD_ILLEGAL_CHARACTER, FormatValidator.password("Admin123!#"));
+        assertEquals(ValidationCode.PASSWORD_MISSING_SPECIAL, FormatValidator.password("Admin1234"));
+    }
+
+    private static void fuzz(Pattern regex, Function<String, ValidationCode> scanner, List<String> seeds, long seed) {
+        Random random = new Random(seed);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            String input = i % 2 == 0 ? randomString(random) : mutate(seeds.get(random.nextInt(seeds.size())), random);
+
+            assertEquals(regex.matcher(input).matches(), scanner.apply(input).isValid(), () -> "input: \"" + input + "\"");
+        }
+    }
+
+    private static String randomString(Random random) {
+        int length = random.nextInt(46);
+        StringBuilder builder = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+
+    // wstawienie, usunięcie albo podmiana kilku znaków poprawnego przykładu
+    private static String mutate(String valid, Random random) {
+        StringBuilder builder = new StringBuilder(valid);
+        int mutations = random.nextInt(4);
+
+        for (int i = 0; i < mutations; i++) {
+            int position = random.nextInt(builder.length() + 1);
+            char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+
+            switch (random.nextInt(3)) {
+                case 0 -> builder.insert(position, c);
+                case 1 -> {
+                    if (position < builder.length()) builder.deleteCharAt(position);
+                }
+                default -> {
+                    if (position < builder.length()) builder.setCharAt(position, c);
+                }
+            }
+        }
+        return builder.toString();
+    }
+}